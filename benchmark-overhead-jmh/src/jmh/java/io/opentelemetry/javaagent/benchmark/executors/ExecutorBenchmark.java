@@ -0,0 +1,91 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.executors;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the task throughput of the JDK executors, either submitting from the root context (as
+ * background pools do) or from inside a span, in which case every task carries the context.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class ExecutorBenchmark {
+
+  private static final int TASKS = 1_000;
+
+  @Param({"ThreadPoolExecutor", "ForkJoinPool"})
+  String executorType;
+
+  @Param({"false", "true"})
+  boolean withSpan;
+
+  private ExecutorService executor;
+  private Span span;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    int threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    executor =
+        "ForkJoinPool".equals(executorType)
+            ? new ForkJoinPool(threads)
+            : new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    span = GlobalOpenTelemetry.getTracer("benchmark").spanBuilder("parent").startSpan();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    span.end();
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TASKS)
+  public void execute() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(TASKS);
+    if (withSpan) {
+      try (Scope ignored = span.makeCurrent()) {
+        submit(latch);
+      }
+    } else {
+      submit(latch);
+    }
+    latch.await();
+  }
+
+  private void submit(CountDownLatch latch) {
+    for (int i = 0; i < TASKS; i++) {
+      executor.execute(latch::countDown);
+    }
+  }
+}
@@ -17,6 +17,13 @@ public enum Configs {
           .description("compares no agent, latest stable, and latest snapshot agents")
           .withAgents(Agent.NONE, Agent.LATEST_RELEASE, Agent.LATEST_SNAPSHOT)
           .warmupSeconds(60)
+          .build()),
+  PRESCAN(
+      TestConfig.builder()
+          .name("prescan")
+          .description("compares the latest snapshot agent with and without class path pre-scan")
+          .withAgents(Agent.NONE, Agent.LATEST_SNAPSHOT, Agent.LATEST_SNAPSHOT_PRESCAN)
+          .warmupSeconds(60)
           .build());
 
   public final TestConfig config;
@@ -1,3 +1,5 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("me.champeau.jmh")
   id("io.morethan.jmhreport")
@@ -24,6 +26,11 @@ jmh {
   }
 }
 
+// allocation per operation (reported by the gc profiler) barely depends on the machine the
+// benchmarks run on, unlike the timings, so it's what gets compared against the checked-in baseline
+val jmhBaseline = file("src/jmh/baseline.json")
+val jmhResults = file("$buildDir/results/jmh/results.json")
+
 jmhReport {
   jmhResultPath = file("$buildDir/results/jmh/results.json").absolutePath
   jmhReportOutput = file("$buildDir/results/jmh").absolutePath
@@ -31,8 +38,85 @@ jmhReport {
 
 tasks {
   named("jmh") {
-    finalizedBy(named("jmhReport"))
+    finalizedBy(named("jmhReport"), "jmhCheckBaseline")
 
     outputs.cacheIf { false }
   }
+
+  plugins.withId("net.ltgt.errorprone") {
+    named<JavaCompile>("jmhCompileGeneratedClasses") {
+      options.errorprone {
+        isEnabled.set(false)
+      }
+    }
+  }
+}
+
+// run on a quiet machine after an intentional change, then commit src/jmh/baseline.json
+val jmhUpdateBaseline = tasks.register<Copy>("jmhUpdateBaseline") {
+  description = "Replaces src/jmh/baseline.json with the results of the last jmh run"
+  mustRunAfter("jmh")
+  from(jmhResults)
+  into(jmhBaseline.parentFile)
+  rename { jmhBaseline.name }
+}
+
+// opt-in, fails when a benchmark allocates more than the baseline, e.g.
+//   ./gradlew :instrumentation-api-semconv:jmh -PjmhCheckBaseline=true -PjmhAllocationTolerance=0.2
+tasks.register("jmhCheckBaseline") {
+  group = "verification"
+  description = "Compares the allocation rate of the last jmh run with src/jmh/baseline.json"
+  // there's nothing to compare when jmh failed, or when the baseline is being replaced anyway
+  onlyIf {
+    (findProperty("jmhCheckBaseline") as String?)?.toBoolean() == true &&
+      jmhResults.exists() &&
+      !gradle.taskGraph.hasTask(jmhUpdateBaseline.get())
+  }
+
+  doLast {
+    if (!jmhBaseline.exists()) {
+      logger.warn(
+        "No allocation baseline at $jmhBaseline, skipping the check. Create it with " +
+          "./gradlew ${project.path}:jmh ${project.path}:jmhUpdateBaseline and commit it."
+      )
+      return@doLast
+    }
+    val tolerance = (findProperty("jmhAllocationTolerance") as String?)?.toDouble() ?: 0.1
+    val baseline = readAllocationRates(jmhBaseline)
+    val regressions = readAllocationRates(jmhResults).mapNotNull { (benchmark, bytesPerOp) ->
+      val baselineBytesPerOp = baseline[benchmark]
+      // the slack keeps benchmarks that allocate (almost) nothing from failing on noise
+      if (baselineBytesPerOp == null) {
+        logger.warn("$benchmark is not in $jmhBaseline, skipping it")
+        null
+      } else if (bytesPerOp > baselineBytesPerOp * (1 + tolerance) + 16) {
+        "$benchmark: $bytesPerOp B/op, baseline $baselineBytesPerOp B/op"
+      } else {
+        null
+      }
+    }
+    if (regressions.isNotEmpty()) {
+      throw GradleException(
+        "Allocation regressions against $jmhBaseline, run jmhUpdateBaseline if they are intended:\n" +
+          regressions.joinToString("\n")
+      )
+    }
+  }
+}
+
+@Suppress("UNCHECKED_CAST")
+fun readAllocationRates(file: File): Map<String, Double> {
+  val results = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+  return results.mapNotNull { result ->
+    val secondaryMetrics = result["secondaryMetrics"] as Map<String, Map<String, Any?>>? ?: emptyMap()
+    // older jmh versions prefix the names of the profiler metrics with a middle dot
+    val allocationRate = secondaryMetrics["gc.alloc.rate.norm"] ?: secondaryMetrics["\u00b7gc.alloc.rate.norm"]
+    if (allocationRate == null) {
+      null
+    } else {
+      val params = result["params"] as Map<String, Any?>?
+      val benchmark = result["benchmark"].toString() + (params?.toString() ?: "")
+      benchmark to (allocationRate["score"] as Number).toDouble()
+    }
+  }.toMap()
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import static java.util.Arrays.asList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class RedisCommandSanitizerBenchmark {
+
+  private static final RedisCommandSanitizer SANITIZER = RedisCommandSanitizer.create(true);
+
+  private final List<?> getArgs = asList("user:123");
+  private final List<?> setArgs = asList("user:123", "{\"name\":\"John\"}", "EX", 3600);
+  private final List<?> msetArgs = asList("k1", "v1", "k2", "v2", "k3", "v3");
+  private final List<?> evalArgs = asList("return redis.call('get', KEYS[1])", 1, "user:123");
+
+  @Benchmark
+  public String get() {
+    return SANITIZER.sanitize("GET", getArgs);
+  }
+
+  @Benchmark
+  public String set() {
+    return SANITIZER.sanitize("SET", setArgs);
+  }
+
+  @Benchmark
+  public String mset() {
+    return SANITIZER.sanitize("MSET", msetArgs);
+  }
+
+  @Benchmark
+  public String eval() {
+    return SANITIZER.sanitize("EVAL", evalArgs);
+  }
+}
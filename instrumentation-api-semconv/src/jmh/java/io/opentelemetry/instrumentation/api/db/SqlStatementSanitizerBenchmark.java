@@ -0,0 +1,62 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class SqlStatementSanitizerBenchmark {
+
+  private static final SqlStatementSanitizer SANITIZER = SqlStatementSanitizer.create(true);
+
+  @Param({
+    "SELECT name, email FROM users WHERE id = 123",
+    "INSERT INTO orders (id, customer, amount, created) VALUES (42, 'john', 12.5, '2023-06-01')",
+    "SELECT * FROM orders o JOIN customers c ON o.customer_id = c.id"
+        + " WHERE c.country = 'NZ' AND o.status IN (1, 2, 3, 4, 5) ORDER BY o.created DESC"
+  })
+  public String statement;
+
+  private StringBuilder statementBuilder;
+
+  @Setup
+  public void setup() {
+    statementBuilder = new StringBuilder(statement);
+  }
+
+  /** A statement that has already been seen, the common case in steady state. */
+  @Benchmark
+  public SqlStatementInfo cached() {
+    return SANITIZER.sanitize(statement);
+  }
+
+  /** Runs the sanitizer itself, bypassing the cache. */
+  @Benchmark
+  public SqlStatementInfo uncached() {
+    return AutoSqlSanitizer.sanitize(statement, SqlDialect.DEFAULT, AutoSqlSanitizer.LIMIT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo uncachedCharSequence() {
+    return SANITIZER.sanitize(statementBuilder, SqlDialect.DEFAULT);
+  }
+}
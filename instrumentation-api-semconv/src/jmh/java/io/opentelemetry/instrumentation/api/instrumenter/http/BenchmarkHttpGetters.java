@@ -0,0 +1,172 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.instrumentation.api.instrumenter.net.NetClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.net.NetServerAttributesGetter;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/** Attribute getters returning constant, realistic values, shared by the HTTP benchmarks. */
+final class BenchmarkHttpGetters {
+
+  private static final InetSocketAddress CLIENT_ADDRESS =
+      InetSocketAddress.createUnresolved("10.1.2.3", 54321);
+  private static final InetSocketAddress SERVER_ADDRESS =
+      InetSocketAddress.createUnresolved("10.1.2.4", 8080);
+
+  enum Server implements HttpServerAttributesGetter<Void, Void> {
+    INSTANCE;
+
+    @Override
+    public String getHttpRequestMethod(Void unused) {
+      return "GET";
+    }
+
+    @Override
+    public String getUrlScheme(Void unused) {
+      return "http";
+    }
+
+    @Override
+    public String getUrlPath(Void unused) {
+      return "/benchmark/users/123";
+    }
+
+    @Override
+    public String getUrlQuery(Void unused) {
+      return "format=json";
+    }
+
+    @Override
+    public String getHttpRoute(Void unused) {
+      return "/benchmark/users/{id}";
+    }
+
+    @Override
+    public List<String> getHttpRequestHeader(Void unused, String name) {
+      switch (name) {
+        case "user-agent":
+          return Collections.singletonList("OpenTelemetryBot");
+        case "host":
+          return Collections.singletonList("opentelemetry.io:8080");
+        case "x-forwarded-for":
+          return Collections.singletonList("1.1.1.1, 10.1.2.3");
+        default:
+          return Collections.emptyList();
+      }
+    }
+
+    @Override
+    public Integer getHttpResponseStatusCode(Void unused, Void unused2, @Nullable Throwable error) {
+      return 200;
+    }
+
+    @Override
+    public List<String> getHttpResponseHeader(Void unused, Void unused2, String name) {
+      return Collections.emptyList();
+    }
+  }
+
+  enum Client implements HttpClientAttributesGetter<Void, Void> {
+    INSTANCE;
+
+    @Override
+    public String getUrlFull(Void unused) {
+      return "https://opentelemetry.io/benchmark/users/123?format=json";
+    }
+
+    @Override
+    public String getHttpRequestMethod(Void unused) {
+      return "GET";
+    }
+
+    @Override
+    public List<String> getHttpRequestHeader(Void unused, String name) {
+      if (name.equals("user-agent")) {
+        return Collections.singletonList("OpenTelemetryBot");
+      }
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Integer getHttpResponseStatusCode(Void unused, Void unused2, @Nullable Throwable error) {
+      return 200;
+    }
+
+    @Override
+    public List<String> getHttpResponseHeader(Void unused, Void unused2, String name) {
+      return Collections.emptyList();
+    }
+  }
+
+  enum NetServer implements NetServerAttributesGetter<Void, Void> {
+    INSTANCE;
+
+    @Override
+    public String getNetworkProtocolName(Void unused, @Nullable Void unused2) {
+      return "http";
+    }
+
+    @Override
+    public String getNetworkProtocolVersion(Void unused, @Nullable Void unused2) {
+      return "1.1";
+    }
+
+    @Override
+    public String getServerAddress(Void unused) {
+      return "opentelemetry.io";
+    }
+
+    @Override
+    public Integer getServerPort(Void unused) {
+      return 8080;
+    }
+
+    @Override
+    public InetSocketAddress getClientInetSocketAddress(Void unused, @Nullable Void unused2) {
+      return CLIENT_ADDRESS;
+    }
+
+    @Override
+    public InetSocketAddress getServerInetSocketAddress(Void unused, @Nullable Void unused2) {
+      return SERVER_ADDRESS;
+    }
+  }
+
+  enum NetClient implements NetClientAttributesGetter<Void, Void> {
+    INSTANCE;
+
+    @Override
+    public String getNetworkProtocolName(Void unused, @Nullable Void unused2) {
+      return "http";
+    }
+
+    @Override
+    public String getNetworkProtocolVersion(Void unused, @Nullable Void unused2) {
+      return "1.1";
+    }
+
+    @Override
+    public String getServerAddress(Void unused) {
+      return "opentelemetry.io";
+    }
+
+    @Override
+    public Integer getServerPort(Void unused) {
+      return 443;
+    }
+
+    @Override
+    public InetSocketAddress getServerInetSocketAddress(Void unused, @Nullable Void unused2) {
+      return SERVER_ADDRESS;
+    }
+  }
+
+  private BenchmarkHttpGetters() {}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class ForwardedHeaderParserBenchmark {
+
+  // non-final so that the JIT can't constant fold the parsing
+  private String forwarded = "for=\"[2001:db8:cafe::17]:4711\";proto=https;by=203.0.113.43";
+  private String forwardedFor = "203.0.113.195, 70.41.3.18, 150.172.238.178";
+  private String forwardedProto = "https";
+
+  @Benchmark
+  public String forwardedClientIp() {
+    return ForwardedHeaderParser.extractClientIpFromForwardedHeader(forwarded);
+  }
+
+  @Benchmark
+  public String forwardedProto() {
+    return ForwardedHeaderParser.extractProtoFromForwardedHeader(forwarded);
+  }
+
+  @Benchmark
+  public String forwardedForClientIp() {
+    return ForwardedHeaderParser.extractClientIpFromForwardedForHeader(forwardedFor);
+  }
+
+  @Benchmark
+  public String forwardedProtoHeader() {
+    return ForwardedHeaderParser.extractProtoFromForwardedProtoHeader(forwardedProto);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class HttpAttributesExtractorBenchmark {
+
+  private static final AttributesExtractor<Void, Void> SERVER_EXTRACTOR =
+      HttpServerAttributesExtractor.create(
+          BenchmarkHttpGetters.Server.INSTANCE, BenchmarkHttpGetters.NetServer.INSTANCE);
+
+  private static final AttributesExtractor<Void, Void> CLIENT_EXTRACTOR =
+      HttpClientAttributesExtractor.create(
+          BenchmarkHttpGetters.Client.INSTANCE, BenchmarkHttpGetters.NetClient.INSTANCE);
+
+  @Benchmark
+  public Attributes serverStart() {
+    AttributesBuilder attributes = Attributes.builder();
+    SERVER_EXTRACTOR.onStart(attributes, Context.root(), null);
+    return attributes.build();
+  }
+
+  @Benchmark
+  public Attributes serverStartEnd() {
+    AttributesBuilder attributes = Attributes.builder();
+    SERVER_EXTRACTOR.onStart(attributes, Context.root(), null);
+    SERVER_EXTRACTOR.onEnd(attributes, Context.root(), null, null, null);
+    return attributes.build();
+  }
+
+  @Benchmark
+  public Attributes clientStart() {
+    AttributesBuilder attributes = Attributes.builder();
+    CLIENT_EXTRACTOR.onStart(attributes, Context.root(), null);
+    return attributes.build();
+  }
+
+  @Benchmark
+  public Attributes clientStartEnd() {
+    AttributesBuilder attributes = Attributes.builder();
+    CLIENT_EXTRACTOR.onStart(attributes, Context.root(), null);
+    CLIENT_EXTRACTOR.onEnd(attributes, Context.root(), null, null, null);
+    return attributes.build();
+  }
+}
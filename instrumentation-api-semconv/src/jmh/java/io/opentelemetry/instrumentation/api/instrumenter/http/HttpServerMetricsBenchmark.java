@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class HttpServerMetricsBenchmark {
+
+  @Param({"false", "true"})
+  boolean asyncActiveRequests;
+
+  private SdkMeterProvider meterProvider;
+  private OperationListener listener;
+  private Attributes startAttributes;
+  private Attributes endAttributes;
+
+  @Setup
+  public void setup() {
+    // the SDK returns no-op instruments when there's no reader registered
+    meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(InMemoryMetricReader.create()).build();
+    listener = HttpServerMetrics.get(asyncActiveRequests).create(meterProvider.get("benchmark"));
+
+    AttributesExtractor<Void, Void> extractor =
+        HttpServerAttributesExtractor.create(
+            BenchmarkHttpGetters.Server.INSTANCE, BenchmarkHttpGetters.NetServer.INSTANCE);
+    AttributesBuilder start = Attributes.builder();
+    extractor.onStart(start, Context.root(), null);
+    startAttributes = start.build();
+    AttributesBuilder end = Attributes.builder();
+    extractor.onEnd(end, Context.root(), null, null, null);
+    endAttributes = end.build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    meterProvider.close();
+  }
+
+  @Benchmark
+  public Context onStart() {
+    return listener.onStart(Context.root(), startAttributes, 0);
+  }
+
+  @Benchmark
+  public Context onStartEnd() {
+    Context context = listener.onStart(Context.root(), startAttributes, 0);
+    listener.onEnd(context, endAttributes, 1_000_000);
+    return context;
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import java.io.Reader;
+
+/**
+ * A {@link Reader} over a {@link CharSequence} that does not copy it into a {@link String} first,
+ * so that very large statements held e.g. in a {@link StringBuilder} can be sanitized in place.
+ */
+final class CharSequenceReader extends Reader {
+
+  private final CharSequence charSequence;
+  private int position;
+
+  CharSequenceReader(CharSequence charSequence) {
+    this.charSequence = charSequence;
+  }
+
+  @Override
+  public int read() {
+    return position < charSequence.length() ? charSequence.charAt(position++) : -1;
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) {
+    int remaining = charSequence.length() - position;
+    if (remaining <= 0) {
+      return -1;
+    }
+    int count = Math.min(length, remaining);
+    for (int i = 0; i < count; i++) {
+      buffer[offset + i] = charSequence.charAt(position + i);
+    }
+    position += count;
+    return count;
+  }
+
+  @Override
+  public void close() {}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+/**
+ * Collapses {@code IN} lists that consist only of literals and {@code ?} placeholders into a single
+ * placeholder, e.g. {@code id IN (1, 2, 3)} becomes {@code id IN (?)}. ORM frameworks generate
+ * such lists with varying lengths for what is essentially the same statement; normalizing them
+ * before the cache lookup lets all of these statements share one {@link SqlStatementSanitizer}
+ * cache entry.
+ *
+ * <p>Only literals that the sanitizer would replace with {@code ?} anyway are collapsed, so apart
+ * from the list length the sanitized statement does not change.
+ */
+final class SqlInListNormalizer {
+
+  static String normalize(String statement, SqlDialect dialect) {
+    StringBuilder result = null;
+    int copiedUpTo = 0;
+    int length = statement.length();
+    int i = 0;
+    while (i < length) {
+      char c = statement.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        i = skipQuoted(statement, i);
+        continue;
+      }
+      if (c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+        int commentEnd = statement.indexOf("*/", i + 2);
+        i = commentEnd < 0 ? length : commentEnd + 2;
+        continue;
+      }
+      if ((c == 'i' || c == 'I') && isInKeyword(statement, i)) {
+        int listStart = skipWhitespace(statement, i + 2);
+        if (listStart < length && statement.charAt(listStart) == '(') {
+          int listEnd = findCollapsibleListEnd(statement, listStart + 1, dialect);
+          if (listEnd > 0) {
+            if (result == null) {
+              result = new StringBuilder(length);
+            }
+            result.append(statement, copiedUpTo, listStart + 1).append('?');
+            // the closing parenthesis is copied together with the next fragment
+            copiedUpTo = listEnd;
+            i = listEnd + 1;
+            continue;
+          }
+        }
+      }
+      i++;
+    }
+
+    if (result == null) {
+      return statement;
+    }
+    return result.append(statement, copiedUpTo, length).toString();
+  }
+
+  private static boolean isInKeyword(String statement, int index) {
+    if (index + 1 >= statement.length()) {
+      return false;
+    }
+    char next = statement.charAt(index + 1);
+    if (next != 'n' && next != 'N') {
+      return false;
+    }
+    if (index > 0 && isIdentifierPart(statement.charAt(index - 1))) {
+      return false;
+    }
+    return index + 2 >= statement.length() || !isIdentifierPart(statement.charAt(index + 2));
+  }
+
+  /**
+   * Returns the index of the closing parenthesis if the list starting at {@code index} contains at
+   * least two elements and all of them are literals or placeholders, or -1 otherwise.
+   */
+  private static int findCollapsibleListEnd(String statement, int index, SqlDialect dialect) {
+    int length = statement.length();
+    int elements = 0;
+    int i = index;
+    while (true) {
+      i = skipWhitespace(statement, i);
+      if (i >= length) {
+        return -1;
+      }
+      i = skipLiteral(statement, i, dialect);
+      if (i < 0) {
+        return -1;
+      }
+      elements++;
+      i = skipWhitespace(statement, i);
+      if (i >= length) {
+        return -1;
+      }
+      char c = statement.charAt(i);
+      if (c == ')') {
+        return elements > 1 ? i : -1;
+      }
+      if (c != ',') {
+        return -1;
+      }
+      i++;
+    }
+  }
+
+  /** Returns the index right after the literal starting at {@code index}, or -1 if there's none. */
+  private static int skipLiteral(String statement, int index, SqlDialect dialect) {
+    char c = statement.charAt(index);
+    if (c == '?') {
+      return index + 1;
+    }
+    if (c == '\'' || (c == '"' && dialect == SqlDialect.COUCHBASE)) {
+      int end = skipQuoted(statement, index);
+      // unterminated string literal
+      return end > statement.length() ? -1 : end;
+    }
+    return skipNumber(statement, index);
+  }
+
+  // mirrors the BASIC_NUM and HEX_NUM patterns of SqlSanitizer.jflex
+  private static int skipNumber(String statement, int index) {
+    int length = statement.length();
+    int i = index;
+    if (i + 2 < length
+        && statement.charAt(i) == '0'
+        && (statement.charAt(i + 1) == 'x' || statement.charAt(i + 1) == 'X')
+        && isHexDigit(statement.charAt(i + 2))) {
+      i += 2;
+      while (i < length && isHexDigit(statement.charAt(i))) {
+        i++;
+      }
+      return i;
+    }
+    while (i < length && isNumberSign(statement.charAt(i))) {
+      i++;
+    }
+    if (i >= length || !isDigit(statement.charAt(i))) {
+      return -1;
+    }
+    while (i < length && (isDigit(statement.charAt(i)) || isNumberPart(statement.charAt(i)))) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Returns the index right after the closing quote of the string starting at {@code index}, or
+   * {@code statement.length() + 1} if the string is not terminated. Quotes are escaped by doubling
+   * them.
+   */
+  private static int skipQuoted(String statement, int index) {
+    char quote = statement.charAt(index);
+    int length = statement.length();
+    int i = index + 1;
+    while (i < length) {
+      if (statement.charAt(i) == quote) {
+        if (i + 1 < length && statement.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return length + 1;
+  }
+
+  private static int skipWhitespace(String statement, int index) {
+    int i = index;
+    while (i < statement.length() && Character.isWhitespace(statement.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isHexDigit(char c) {
+    return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+
+  private static boolean isNumberSign(char c) {
+    return c == '.' || c == '+' || c == '-';
+  }
+
+  private static boolean isNumberPart(char c) {
+    return isNumberSign(c) || c == 'e' || c == 'E';
+  }
+
+  private SqlInListNormalizer() {}
+}
@@ -5,10 +5,8 @@
 
 package io.opentelemetry.instrumentation.api.db;
 
-import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
-
 import com.google.auto.value.AutoValue;
-import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import javax.annotation.Nullable;
 
@@ -17,19 +15,63 @@ import javax.annotation.Nullable;
  * statements and queries.
  */
 public final class SqlStatementSanitizer {
-  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+  private static final int DEFAULT_CACHE_SIZE = 1000;
 
+  // statements that are seen only once (e.g. with inlined parameter values) are not admitted into
+  // the cache once it is full, so that they cannot evict the frequently executed ones
   private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
+      Cache.boundedWithFrequencyAdmission(getCacheSize(), "SqlStatementSanitizer");
+
+  private static final boolean collapseInListsByDefault =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.db-statement-sanitizer.collapse-in-lists", false);
+
+  private static final int defaultMaxStatementLength = getDefaultMaxStatementLength();
 
   public static SqlStatementSanitizer create(boolean statementSanitizationEnabled) {
-    return new SqlStatementSanitizer(statementSanitizationEnabled);
+    return new SqlStatementSanitizer(
+        statementSanitizationEnabled, collapseInListsByDefault, defaultMaxStatementLength);
+  }
+
+  // visible for testing
+  static SqlStatementSanitizer create(
+      boolean statementSanitizationEnabled, boolean collapseInLists) {
+    return new SqlStatementSanitizer(
+        statementSanitizationEnabled, collapseInLists, defaultMaxStatementLength);
+  }
+
+  // visible for testing
+  static SqlStatementSanitizer create(
+      boolean statementSanitizationEnabled, int maxStatementLength) {
+    return new SqlStatementSanitizer(
+        statementSanitizationEnabled, collapseInListsByDefault, maxStatementLength);
+  }
+
+  private static int getCacheSize() {
+    int cacheSize =
+        ConfigPropertiesUtil.getInt(
+            "otel.instrumentation.experimental.db-statement-sanitizer.cache-size",
+            DEFAULT_CACHE_SIZE);
+    return cacheSize > 0 ? cacheSize : DEFAULT_CACHE_SIZE;
+  }
+
+  private static int getDefaultMaxStatementLength() {
+    int maxLength =
+        ConfigPropertiesUtil.getInt(
+            "otel.instrumentation.experimental.db-statement-sanitizer.max-length",
+            AutoSqlSanitizer.LIMIT);
+    return maxLength > 0 ? maxLength : AutoSqlSanitizer.LIMIT;
   }
 
   private final boolean statementSanitizationEnabled;
+  private final boolean collapseInLists;
+  private final int maxStatementLength;
 
-  private SqlStatementSanitizer(boolean statementSanitizationEnabled) {
+  private SqlStatementSanitizer(
+      boolean statementSanitizationEnabled, boolean collapseInLists, int maxStatementLength) {
     this.statementSanitizationEnabled = statementSanitizationEnabled;
+    this.collapseInLists = collapseInLists;
+    this.maxStatementLength = maxStatementLength;
   }
 
   public SqlStatementInfo sanitize(@Nullable String statement) {
@@ -40,23 +82,41 @@ public final class SqlStatementSanitizer {
     if (!statementSanitizationEnabled || statement == null) {
       return SqlStatementInfo.create(statement, null, null);
     }
+    String normalizedStatement =
+        collapseInLists ? SqlInListNormalizer.normalize(statement, dialect) : statement;
     return sqlToStatementInfoCache.computeIfAbsent(
-        CacheKey.create(statement, dialect),
-        k -> {
-          supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
-          return AutoSqlSanitizer.sanitize(statement, dialect);
-        });
+        CacheKey.create(normalizedStatement, dialect, maxStatementLength),
+        k -> AutoSqlSanitizer.sanitize(normalizedStatement, dialect, maxStatementLength));
+  }
+
+  /**
+   * Sanitizes a statement that is not available as a {@link String}, e.g. one that is being built
+   * in a {@link StringBuilder}. The statement is read in place, without copying it first, and the
+   * rest of it is not scanned once the sanitized statement reached its maximum length and the
+   * operation and table name are known. Unlike {@link #sanitize(String, SqlDialect)} the result is
+   * not cached, since the content of the statement may change.
+   */
+  public SqlStatementInfo sanitize(@Nullable CharSequence statement, SqlDialect dialect) {
+    if (statement == null || statement instanceof String) {
+      return sanitize((String) statement, dialect);
+    }
+    if (!statementSanitizationEnabled) {
+      return SqlStatementInfo.create(statement.toString(), null, null);
+    }
+    return AutoSqlSanitizer.sanitize(statement, dialect, maxStatementLength);
   }
 
   @AutoValue
   abstract static class CacheKey {
 
-    static CacheKey create(String statement, SqlDialect dialect) {
-      return new AutoValue_SqlStatementSanitizer_CacheKey(statement, dialect);
+    static CacheKey create(String statement, SqlDialect dialect, int maxStatementLength) {
+      return new AutoValue_SqlStatementSanitizer_CacheKey(statement, dialect, maxStatementLength);
     }
 
     abstract String getStatement();
 
     abstract SqlDialect getDialect();
+
+    abstract int getMaxStatementLength();
   }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the requests that are currently in flight without going through the metrics SDK on every
+ * request. Every attribute set has its own {@link LongAdder}, which spreads concurrent updates over
+ * several cells instead of contending on a single one; the counts are only summed up when the
+ * metrics are collected, by the callback of an asynchronous instrument.
+ *
+ * <p>An attribute set whose count is zero is reported once more and then removed, so that the
+ * counters of attribute sets that are no longer used don't pile up.
+ */
+final class ActiveRequestsTracker {
+
+  private final ConcurrentMap<Attributes, Counter> counters = new ConcurrentHashMap<>();
+
+  void increment(Attributes attributes) {
+    while (true) {
+      Counter counter = counter(attributes);
+      counter.count.increment();
+      int state = counter.state.get();
+      if (state == Counter.ACTIVE) {
+        return;
+      }
+      // the counter is being removed, undo the increment and retry with the counter that
+      // replaces it
+      counter.count.decrement();
+      if (state == Counter.REMOVED) {
+        counters.remove(attributes, counter);
+      } else {
+        Thread.yield();
+      }
+    }
+  }
+
+  void decrement(Attributes attributes) {
+    // counters are only removed when they count no requests, so the one that was incremented when
+    // the request started is still there
+    Counter counter = counters.get(attributes);
+    if (counter != null) {
+      counter.count.decrement();
+    }
+  }
+
+  private Counter counter(Attributes attributes) {
+    // get() first, computeIfAbsent() locks the bin even when the mapping exists on java 8
+    Counter counter = counters.get(attributes);
+    if (counter == null) {
+      counter = counters.computeIfAbsent(attributes, unused -> new Counter());
+    }
+    return counter;
+  }
+
+  void record(ObservableLongMeasurement measurement) {
+    for (Map.Entry<Attributes, Counter> entry : counters.entrySet()) {
+      Counter counter = entry.getValue();
+      long count = counter.count.sum();
+      measurement.record(count, entry.getKey());
+      if (count == 0 && counter.tryRemove()) {
+        counters.remove(entry.getKey(), counter);
+      }
+    }
+  }
+
+  // visible for testing
+  int size() {
+    return counters.size();
+  }
+
+  private static final class Counter {
+    static final int ACTIVE = 0;
+    static final int REMOVING = 1;
+    static final int REMOVED = 2;
+
+    final LongAdder count = new LongAdder();
+    final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+    // increment() checks the state after counting, so either the count is seen here or the
+    // increment sees that the counter is being removed and undoes itself
+    boolean tryRemove() {
+      if (!state.compareAndSet(ACTIVE, REMOVING)) {
+        return false;
+      }
+      if (count.sum() != 0) {
+        state.set(ACTIVE);
+        return false;
+      }
+      state.set(REMOVED);
+      return true;
+    }
+  }
+}
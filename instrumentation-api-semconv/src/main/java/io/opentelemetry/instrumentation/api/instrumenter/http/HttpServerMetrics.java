@@ -18,12 +18,15 @@ import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongHistogram;
 import io.opentelemetry.api.metrics.LongUpDownCounter;
+import io.opentelemetry.api.metrics.LongUpDownCounterBuilder;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * {@link OperationListener} which keeps track of <a
@@ -37,27 +40,48 @@ public final class HttpServerMetrics implements OperationListener {
 
   private static final Logger logger = Logger.getLogger(HttpServerMetrics.class.getName());
 
+  // if set to true, active requests are counted in striped cells and reported by an asynchronous
+  // instrument when metrics are collected; this avoids contention in the metrics SDK under high
+  // load, but the active requests metric won't have exemplars anymore
+  private static final boolean ASYNC_ACTIVE_REQUESTS =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.http.server.experimental.async-active-requests", false);
+
   /**
    * Returns a {@link OperationMetrics} which can be used to enable recording of {@link
    * HttpServerMetrics} on an {@link
    * io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder}.
    */
   public static OperationMetrics get() {
-    return HttpServerMetrics::new;
+    return get(ASYNC_ACTIVE_REQUESTS);
+  }
+
+  // visible for testing
+  static OperationMetrics get(boolean asyncActiveRequests) {
+    return meter -> new HttpServerMetrics(meter, asyncActiveRequests);
   }
 
-  private final LongUpDownCounter activeRequests;
+  @Nullable private final LongUpDownCounter activeRequests;
+  @Nullable private final ActiveRequestsTracker activeRequestsTracker;
   private final DoubleHistogram duration;
   private final LongHistogram requestSize;
   private final LongHistogram responseSize;
 
-  private HttpServerMetrics(Meter meter) {
-    activeRequests =
+  private HttpServerMetrics(Meter meter, boolean asyncActiveRequests) {
+    LongUpDownCounterBuilder activeRequestsBuilder =
         meter
             .upDownCounterBuilder("http.server.active_requests")
             .setUnit("{requests}")
-            .setDescription("The number of concurrent HTTP requests that are currently in-flight")
-            .build();
+            .setDescription("The number of concurrent HTTP requests that are currently in-flight");
+    if (asyncActiveRequests) {
+      ActiveRequestsTracker tracker = new ActiveRequestsTracker();
+      activeRequestsBuilder.buildWithCallback(tracker::record);
+      activeRequests = null;
+      activeRequestsTracker = tracker;
+    } else {
+      activeRequests = activeRequestsBuilder.build();
+      activeRequestsTracker = null;
+    }
     duration =
         createDurationHistogram(
             meter, "http.server.duration", "The duration of the inbound HTTP request");
@@ -79,7 +103,12 @@ public final class HttpServerMetrics implements OperationListener {
 
   @Override
   public Context onStart(Context context, Attributes startAttributes, long startNanos) {
-    activeRequests.add(1, applyActiveRequestsView(startAttributes), context);
+    Attributes activeRequestsAttributes = applyActiveRequestsView(startAttributes);
+    if (activeRequestsTracker != null) {
+      activeRequestsTracker.increment(activeRequestsAttributes);
+    } else if (activeRequests != null) {
+      activeRequests.add(1, activeRequestsAttributes, context);
+    }
 
     return context.with(
         HTTP_SERVER_REQUEST_METRICS_STATE,
@@ -98,7 +127,12 @@ public final class HttpServerMetrics implements OperationListener {
     }
     // it's important to use exactly the same attributes that were used when incrementing the active
     // request count (otherwise it will split the timeseries)
-    activeRequests.add(-1, applyActiveRequestsView(state.startAttributes()), context);
+    Attributes activeRequestsAttributes = applyActiveRequestsView(state.startAttributes());
+    if (activeRequestsTracker != null) {
+      activeRequestsTracker.decrement(activeRequestsAttributes);
+    } else if (activeRequests != null) {
+      activeRequests.add(-1, activeRequestsAttributes, context);
+    }
 
     Attributes durationAndSizeAttributes =
         applyServerDurationAndSizeView(state.startAttributes(), endAttributes);
@@ -0,0 +1,101 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Filters attributes down to a fixed set of keys and interns the result. Metric attributes have a
+ * low cardinality by design, so almost every request maps to a filtered set that was already built
+ * for an earlier request; looking it up only reads the values of the view keys and doesn't
+ * allocate.
+ *
+ * <p>The interned sets are stored in a direct mapped table of fixed size: a set replaces the one
+ * that hashes to the same slot, so when there are more distinct sets than slots the colliding ones
+ * are simply built again.
+ */
+final class InterningAttributesView {
+
+  // must be a power of two
+  private static final int TABLE_SIZE = 256;
+
+  @SuppressWarnings("rawtypes")
+  private final AttributeKey[] keys;
+
+  // entries are immutable, racing writers can only cause a set to be built more than once
+  private final Entry[] table = new Entry[TABLE_SIZE];
+
+  @SuppressWarnings("rawtypes")
+  InterningAttributesView(Set<AttributeKey> keys) {
+    this.keys = keys.toArray(new AttributeKey[0]);
+  }
+
+  /**
+   * Returns the attributes of {@code startAttributes} and {@code endAttributes} that are part of
+   * this view, values from {@code endAttributes} take precedence.
+   */
+  Attributes apply(Attributes startAttributes, Attributes endAttributes) {
+    int hash = 1;
+    for (AttributeKey<?> key : keys) {
+      hash = 31 * hash + Objects.hashCode(get(key, startAttributes, endAttributes));
+    }
+    int index = (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+
+    Entry entry = table[index];
+    if (entry != null
+        && entry.hash == hash
+        && entry.matches(keys, startAttributes, endAttributes)) {
+      return entry.attributes;
+    }
+
+    entry = new Entry(hash, keys, startAttributes, endAttributes);
+    table[index] = entry;
+    return entry.attributes;
+  }
+
+  @Nullable
+  private static Object get(
+      AttributeKey<?> key, Attributes startAttributes, Attributes endAttributes) {
+    Object value = endAttributes.get(key);
+    return value != null ? value : startAttributes.get(key);
+  }
+
+  private static final class Entry {
+    private final int hash;
+    private final Object[] values;
+    private final Attributes attributes;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    Entry(int hash, AttributeKey[] keys, Attributes startAttributes, Attributes endAttributes) {
+      this.hash = hash;
+      this.values = new Object[keys.length];
+      AttributesBuilder builder = Attributes.builder();
+      for (int i = 0; i < keys.length; i++) {
+        Object value = get(keys[i], startAttributes, endAttributes);
+        values[i] = value;
+        if (value != null) {
+          builder.put(keys[i], value);
+        }
+      }
+      this.attributes = builder.build();
+    }
+
+    @SuppressWarnings("rawtypes")
+    boolean matches(AttributeKey[] keys, Attributes startAttributes, Attributes endAttributes) {
+      for (int i = 0; i < keys.length; i++) {
+        if (!Objects.equals(values[i], get(keys[i], startAttributes, endAttributes))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
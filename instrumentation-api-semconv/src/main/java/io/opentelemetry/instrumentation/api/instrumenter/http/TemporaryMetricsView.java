@@ -7,14 +7,12 @@ package io.opentelemetry.instrumentation.api.instrumenter.http;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.net.internal.NetAttributes;
 import io.opentelemetry.instrumentation.api.instrumenter.network.internal.NetworkAttributes;
 import io.opentelemetry.instrumentation.api.instrumenter.url.internal.UrlAttributes;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -26,6 +24,13 @@ final class TemporaryMetricsView {
   private static final Set<AttributeKey> durationServerView = buildDurationServerView();
   private static final Set<AttributeKey> activeRequestsView = buildActiveRequestsView();
 
+  private static final InterningAttributesView internedClientView =
+      new InterningAttributesView(durationClientView);
+  private static final InterningAttributesView internedServerView =
+      new InterningAttributesView(durationServerView);
+  private static final InterningAttributesView internedActiveRequestsView =
+      new InterningAttributesView(activeRequestsView);
+
   private static Set<AttributeKey> buildDurationAlwaysInclude() {
     // the list of included metrics is from
     // https://github.com/open-telemetry/opentelemetry-specification/blob/main/specification/metrics/semantic_conventions/http-metrics.md#attributes
@@ -91,36 +96,16 @@ final class TemporaryMetricsView {
 
   static Attributes applyClientDurationAndSizeView(
       Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationClientView);
-    applyView(filtered, endAttributes, durationClientView);
-    return filtered.build();
+    return internedClientView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerDurationAndSizeView(
       Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationServerView);
-    applyView(filtered, endAttributes, durationServerView);
-    return filtered.build();
+    return internedServerView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyActiveRequestsView(Attributes attributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, attributes, activeRequestsView);
-    return filtered.build();
-  }
-
-  @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+    return internedActiveRequestsView.apply(attributes, Attributes.empty());
   }
 
   private TemporaryMetricsView() {}
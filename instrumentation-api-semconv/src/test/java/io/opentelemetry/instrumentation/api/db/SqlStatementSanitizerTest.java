@@ -42,6 +42,13 @@ public class SqlStatementSanitizerTest {
     assertThat(result.getFullStatement()).isEqualTo(expected);
   }
 
+  @ParameterizedTest
+  @ArgumentsSource(InListArgs.class)
+  void collapseInLists(String original, String expected) {
+    SqlStatementInfo result = SqlStatementSanitizer.create(true, true).sanitize(original);
+    assertThat(result.getFullStatement()).isEqualTo(expected);
+  }
+
   @Test
   void veryLongSelectStatementsAreOk() {
     StringBuilder sb = new StringBuilder("SELECT * FROM table WHERE");
@@ -58,6 +65,40 @@ public class SqlStatementSanitizerTest {
     assertThat(result).isEqualTo(expected);
   }
 
+  @Test
+  void customMaxLengthStillExtractsTableName() {
+    StringBuilder sb = new StringBuilder("SELECT");
+    for (int i = 0; i < 100; i++) {
+      sb.append(" column").append(i).append(",");
+    }
+    sb.append(" last FROM table WHERE id = 1");
+
+    SqlStatementInfo result = SqlStatementSanitizer.create(true, 50).sanitize(sb.toString());
+
+    assertThat(result.getFullStatement()).isEqualTo(sb.substring(0, 50));
+    assertThat(result.getOperation()).isEqualTo("SELECT");
+    assertThat(result.getMainIdentifier()).isEqualTo("table");
+  }
+
+  @Test
+  void charSequenceInputIsSanitized() {
+    StringBuilder sb = new StringBuilder("INSERT INTO table VALUES ");
+    for (int i = 0; i < 100_000; i++) {
+      sb.append("(").append(i).append(", 'value").append(i).append("'), ");
+    }
+
+    SqlStatementInfo result =
+        SqlStatementSanitizer.create(true, 100).sanitize(sb, SqlDialect.DEFAULT);
+
+    StringBuilder expected = new StringBuilder("INSERT INTO table VALUES ");
+    while (expected.length() < 100) {
+      expected.append("(?, ?), ");
+    }
+    assertThat(result.getFullStatement()).isEqualTo(expected.substring(0, 100));
+    assertThat(result.getOperation()).isEqualTo("INSERT");
+    assertThat(result.getMainIdentifier()).isEqualTo("table");
+  }
+
   @Test
   void lotsOfTicksDontCauseStackOverflowOrLongRuntimes() {
     String s = "'";
@@ -202,6 +243,25 @@ public class SqlStatementSanitizerTest {
     }
   }
 
+  static class InListArgs implements ArgumentsProvider {
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) throws Exception {
+      return Stream.of(
+          Arguments.of("SELECT * FROM t WHERE id IN (1, 2, 3)", "SELECT * FROM t WHERE id IN (?)"),
+          Arguments.of("SELECT * FROM t WHERE id in(?,?)", "SELECT * FROM t WHERE id in(?)"),
+          Arguments.of(
+              "SELECT * FROM t WHERE name IN ('a', 'b''c') AND id IN (0x1F, -1.5e+3)",
+              "SELECT * FROM t WHERE name IN (?) AND id IN (?)"),
+          Arguments.of(
+              "SELECT * FROM t WHERE id IN (SELECT id FROM u)",
+              "SELECT * FROM t WHERE id IN (SELECT id FROM u)"),
+          Arguments.of("SELECT * FROM t WHERE id IN (1, id)", "SELECT * FROM t WHERE id IN (?, id)"),
+          Arguments.of("SELECT 'in (1, 2)' FROM t", "SELECT ? FROM t"),
+          Arguments.of("SELECT * FROM t WHERE main IN (1, 2)", "SELECT * FROM t WHERE main IN (?)"));
+    }
+  }
+
   static class CouchbaseArgs implements ArgumentsProvider {
 
     @Override
@@ -0,0 +1,114 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class ActiveRequestsTrackerTest {
+
+  private static final AttributeKey<String> ROUTE = AttributeKey.stringKey("http.route");
+
+  @Test
+  void removesAttributeSetsWithoutActiveRequests() {
+    ActiveRequestsTracker tracker = new ActiveRequestsTracker();
+    Attributes first = Attributes.of(ROUTE, "/first");
+    Attributes second = Attributes.of(ROUTE, "/second");
+
+    tracker.increment(first);
+    tracker.increment(first);
+    tracker.increment(second);
+    tracker.decrement(second);
+
+    assertThat(record(tracker)).containsOnly(entry(first, 2L), entry(second, 0L));
+    assertThat(tracker.size()).isEqualTo(1);
+    assertThat(record(tracker)).containsOnly(entry(first, 2L));
+
+    tracker.decrement(first);
+    tracker.decrement(first);
+    tracker.increment(second);
+
+    assertThat(record(tracker)).containsOnly(entry(first, 0L), entry(second, 1L));
+    assertThat(tracker.size()).isEqualTo(1);
+  }
+
+  @Test
+  void keepsCountsWhileCollectingConcurrently() throws Exception {
+    ActiveRequestsTracker tracker = new ActiveRequestsTracker();
+    Attributes attributes = Attributes.of(ROUTE, "/test");
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    AtomicBoolean done = new AtomicBoolean();
+    CountDownLatch started = new CountDownLatch(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  started.countDown();
+                  for (int j = 0; j < 100_000; j++) {
+                    tracker.increment(attributes);
+                    tracker.decrement(attributes);
+                  }
+                }));
+      }
+      Future<?> collector =
+          executor.submit(
+              () -> {
+                while (!done.get()) {
+                  record(tracker);
+                }
+              });
+      // one request stays active the whole time, so its count must never be lost
+      started.await();
+      tracker.increment(attributes);
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      done.set(true);
+      collector.get();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(record(tracker)).containsOnly(entry(attributes, 1L));
+    tracker.decrement(attributes);
+    assertThat(record(tracker)).containsOnly(entry(attributes, 0L));
+    assertThat(tracker.size()).isZero();
+  }
+
+  private static Map<Attributes, Long> record(ActiveRequestsTracker tracker) {
+    Map<Attributes, Long> counts = new HashMap<>();
+    tracker.record(
+        new ObservableLongMeasurement() {
+          @Override
+          public void record(long value) {
+            throw new AssertionError("attributes are missing");
+          }
+
+          @Override
+          public void record(long value, Attributes attributes) {
+            counts.put(attributes, value);
+          }
+        });
+    return counts;
+  }
+}
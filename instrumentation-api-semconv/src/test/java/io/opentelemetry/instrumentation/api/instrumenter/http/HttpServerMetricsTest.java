@@ -325,6 +325,52 @@ class HttpServerMetricsTest {
                                                 SemanticAttributes.HTTP_ROUTE, "/test/{id}")))));
   }
 
+  @Test
+  void collectsAsyncActiveRequests() {
+    // given
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+
+    OperationListener listener = HttpServerMetrics.get(true).create(meterProvider.get("test"));
+
+    Attributes requestAttributes =
+        Attributes.builder()
+            .put("http.method", "GET")
+            .put("http.target", "/")
+            .put("http.scheme", "https")
+            .put("net.host.name", "localhost")
+            .put("net.host.port", 1234)
+            .build();
+
+    // when
+    Context context1 = listener.onStart(Context.root(), requestAttributes, nanos(100));
+    listener.onStart(Context.root(), requestAttributes, nanos(150));
+    listener.onEnd(context1, Attributes.empty(), nanos(250));
+
+    // then
+    assertThat(metricReader.collectAllMetrics())
+        .anySatisfy(
+            metric ->
+                assertThat(metric)
+                    .hasName("http.server.active_requests")
+                    .hasUnit("{requests}")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isNotMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfying(
+                                                equalTo(SemanticAttributes.HTTP_METHOD, "GET"),
+                                                equalTo(SemanticAttributes.HTTP_SCHEME, "https"),
+                                                equalTo(
+                                                    SemanticAttributes.NET_HOST_NAME, "localhost"),
+                                                equalTo(
+                                                    SemanticAttributes.NET_HOST_PORT, 1234L)))));
+  }
+
   private static long nanos(int millis) {
     return TimeUnit.MILLISECONDS.toNanos(millis);
   }
@@ -0,0 +1,94 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class InterningAttributesViewTest {
+
+  @SuppressWarnings("rawtypes")
+  private static InterningAttributesView createView() {
+    Set<AttributeKey> keys = new HashSet<>();
+    keys.add(SemanticAttributes.HTTP_METHOD);
+    keys.add(SemanticAttributes.HTTP_ROUTE);
+    keys.add(SemanticAttributes.HTTP_STATUS_CODE);
+    return new InterningAttributesView(keys);
+  }
+
+  @Test
+  void shouldReuseFilteredAttributes() {
+    InterningAttributesView view = createView();
+
+    Attributes first =
+        view.apply(
+            Attributes.of(
+                SemanticAttributes.HTTP_METHOD, "GET", SemanticAttributes.HTTP_TARGET, "/users/1"),
+            Attributes.of(
+                SemanticAttributes.HTTP_ROUTE,
+                "/users/{id}",
+                SemanticAttributes.HTTP_STATUS_CODE,
+                200L));
+    Attributes second =
+        view.apply(
+            Attributes.of(
+                SemanticAttributes.HTTP_METHOD, "GET", SemanticAttributes.HTTP_TARGET, "/users/2"),
+            Attributes.of(
+                SemanticAttributes.HTTP_ROUTE,
+                "/users/{id}",
+                SemanticAttributes.HTTP_STATUS_CODE,
+                200L));
+
+    assertThat(first)
+        .containsOnly(
+            entry(SemanticAttributes.HTTP_METHOD, "GET"),
+            entry(SemanticAttributes.HTTP_ROUTE, "/users/{id}"),
+            entry(SemanticAttributes.HTTP_STATUS_CODE, 200L));
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void shouldNotReuseAttributesWithDifferentValues() {
+    InterningAttributesView view = createView();
+
+    Attributes ok =
+        view.apply(
+            Attributes.of(SemanticAttributes.HTTP_METHOD, "GET"),
+            Attributes.of(SemanticAttributes.HTTP_STATUS_CODE, 200L));
+    Attributes notFound =
+        view.apply(
+            Attributes.of(SemanticAttributes.HTTP_METHOD, "GET"),
+            Attributes.of(SemanticAttributes.HTTP_STATUS_CODE, 404L));
+
+    assertThat(ok)
+        .containsOnly(
+            entry(SemanticAttributes.HTTP_METHOD, "GET"),
+            entry(SemanticAttributes.HTTP_STATUS_CODE, 200L));
+    assertThat(notFound)
+        .containsOnly(
+            entry(SemanticAttributes.HTTP_METHOD, "GET"),
+            entry(SemanticAttributes.HTTP_STATUS_CODE, 404L));
+  }
+
+  @Test
+  void shouldPreferEndAttributes() {
+    InterningAttributesView view = createView();
+
+    Attributes attributes =
+        view.apply(
+            Attributes.of(SemanticAttributes.HTTP_ROUTE, "/users/*"),
+            Attributes.of(SemanticAttributes.HTTP_ROUTE, "/users/{id}"));
+
+    assertThat(attributes).containsOnly(entry(SemanticAttributes.HTTP_ROUTE, "/users/{id}"));
+  }
+}
@@ -23,20 +23,14 @@ dependencies {
   testImplementation("org.junit-pioneer:junit-pioneer")
 
   jmhImplementation(project(":instrumentation-api-semconv"))
+  jmhImplementation("io.opentelemetry:opentelemetry-sdk")
 }
 
 tasks {
-  named<Checkstyle>("checkstyleMain") {
+  named<Checkstyle>("checkstyleJmh") {
     exclude("**/concurrentlinkedhashmap/**")
   }
 
-  // TODO this should live in jmh-conventions
-  named<JavaCompile>("jmhCompileGeneratedClasses") {
-    options.errorprone {
-      isEnabled.set(false)
-    }
-  }
-
   withType<Test>().configureEach {
     // required on jdk17
     jvmArgs("--add-opens=java.base/java.util=ALL-UNNAMED")
@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBenchmark.ConstantHttpAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBenchmark.ConstantNetAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientAttributesExtractor;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanNameExtractor;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// run with the gc profiler (enabled by default in otel.jmh-conventions) and compare the
+// gc.alloc.rate.norm values of the two benchmarks
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class InstrumenterSampledOutBenchmark {
+
+  private static final OpenTelemetry OPEN_TELEMETRY =
+      OpenTelemetrySdk.builder()
+          .setTracerProvider(SdkTracerProvider.builder().setSampler(Sampler.alwaysOff()).build())
+          .build();
+
+  private static final Instrumenter<Void, Void> INSTRUMENTER = createInstrumenter(false);
+  private static final Instrumenter<Void, Void> FAST_PATH_INSTRUMENTER = createInstrumenter(true);
+
+  private static Instrumenter<Void, Void> createInstrumenter(boolean sampledOutFastPathEnabled) {
+    return Instrumenter.<Void, Void>builder(
+            OPEN_TELEMETRY,
+            "benchmark",
+            HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+        .addAttributesExtractor(
+            HttpClientAttributesExtractor.create(
+                ConstantHttpAttributesGetter.INSTANCE, new ConstantNetAttributesGetter()))
+        .setSampledOutFastPathEnabled(sampledOutFastPathEnabled)
+        .buildInstrumenter();
+  }
+
+  @Benchmark
+  public Context startEnd() {
+    Context context = INSTRUMENTER.start(Context.root(), null);
+    INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context startEnd_sampledOutFastPath() {
+    Context context = FAST_PATH_INSTRUMENTER.start(Context.root(), null);
+    FAST_PATH_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+}
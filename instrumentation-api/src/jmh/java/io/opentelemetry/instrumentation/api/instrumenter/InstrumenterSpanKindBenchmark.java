@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBenchmark.ConstantHttpAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBenchmark.ConstantNetAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientAttributesExtractor;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanNameExtractor;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// unlike InstrumenterBenchmark this one uses the SDK, so that the spans are actually recorded and
+// span suppression (which depends on the span kind) has a parent span to look at
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class InstrumenterSpanKindBenchmark {
+
+  private static final OpenTelemetry OPEN_TELEMETRY =
+      OpenTelemetrySdk.builder().setTracerProvider(SdkTracerProvider.builder().build()).build();
+
+  @Param public SpanKind spanKind;
+
+  private Instrumenter<Void, Void> instrumenter;
+  private Context parentContext;
+
+  @Setup
+  public void setup() {
+    instrumenter =
+        Instrumenter.<Void, Void>builder(
+                OPEN_TELEMETRY,
+                "benchmark",
+                HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+            .addAttributesExtractor(
+                HttpClientAttributesExtractor.create(
+                    ConstantHttpAttributesGetter.INSTANCE, new ConstantNetAttributesGetter()))
+            .buildInstrumenter(request -> spanKind);
+
+    Instrumenter<Void, Void> parentInstrumenter =
+        Instrumenter.<Void, Void>builder(OPEN_TELEMETRY, "benchmark", request -> "parent")
+            .buildInstrumenter(SpanKindExtractor.alwaysInternal());
+    parentContext = parentInstrumenter.start(Context.root(), null);
+  }
+
+  @Benchmark
+  public Context startEnd() {
+    Context context = instrumenter.start(Context.root(), null);
+    instrumenter.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context startEnd_withParent() {
+    Context context = instrumenter.start(parentContext, null);
+    instrumenter.end(context, null, null, null);
+    return context;
+  }
+}
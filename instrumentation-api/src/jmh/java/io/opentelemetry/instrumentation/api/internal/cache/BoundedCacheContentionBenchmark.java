@@ -0,0 +1,108 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the sharded {@link BoundedCache} with the previous {@link ConcurrentLinkedHashMap} based
+ * implementation under contention, using a skewed key distribution over twice as many keys as the
+ * cache can hold.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BoundedCacheContentionBenchmark {
+
+  private static final int CAPACITY = 1000;
+  private static final int KEY_COUNT = CAPACITY * 2;
+  private static final Function<Integer, Integer> MAPPING_FUNCTION = key -> key;
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+
+    @Param({"sharded", "concurrentLinkedHashMap"})
+    String implementation;
+
+    Cache<Integer, Integer> cache;
+
+    @Setup
+    public void setUp() {
+      if (implementation.equals("sharded")) {
+        cache = Cache.bounded(CAPACITY);
+      } else {
+        cache =
+            new MapBackedCache<>(
+                new ConcurrentLinkedHashMap.Builder<Integer, Integer>()
+                    .maximumWeightedCapacity(CAPACITY)
+                    .build());
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class KeyState {
+
+    final Integer[] keys = new Integer[1024];
+    int index;
+
+    @Setup
+    public void setUp() {
+      Random random = new Random();
+      for (int i = 0; i < keys.length; i++) {
+        // squaring a uniform value skews the distribution towards the low keys, similar to the
+        // handful of hot statements that dominate a typical application
+        double uniform = random.nextDouble();
+        keys[i] = (int) (uniform * uniform * KEY_COUNT);
+      }
+    }
+
+    Integer nextKey() {
+      return keys[index++ & (keys.length - 1)];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer threads001(CacheState cacheState, KeyState keyState) {
+    return cacheState.cache.computeIfAbsent(keyState.nextKey(), MAPPING_FUNCTION);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Integer threads016(CacheState cacheState, KeyState keyState) {
+    return cacheState.cache.computeIfAbsent(keyState.nextKey(), MAPPING_FUNCTION);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Integer threads064(CacheState cacheState, KeyState keyState) {
+    return cacheState.cache.computeIfAbsent(keyState.nextKey(), MAPPING_FUNCTION);
+  }
+
+  @Benchmark
+  @Threads(256)
+  public Integer threads256(CacheState cacheState, KeyState keyState) {
+    return cacheState.cache.computeIfAbsent(keyState.nextKey(), MAPPING_FUNCTION);
+  }
+}
@@ -79,6 +79,12 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final ErrorCauseExtractor errorCauseExtractor;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
+  private final boolean sampledOutFastPath;
+
+  // the largest number of attributes extracted so far, used to pre-size the attributes storage;
+  // these are updated without synchronization, losing an update only costs a resize
+  private int startAttributesCapacity;
+  private int endAttributesCapacity;
 
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
     this.instrumentationName = builder.instrumentationName;
@@ -93,6 +99,13 @@ public class Instrumenter<REQUEST, RESPONSE> {
     this.errorCauseExtractor = builder.errorCauseExtractor;
     this.enabled = builder.enabled;
     this.spanSuppressor = builder.buildSpanSuppressor();
+    // the fast path is only safe when nothing but the span itself consumes the extracted data;
+    // links can only be added before the span is started, so they rule it out as well
+    this.sampledOutFastPath =
+        builder.sampledOutFastPathEnabled
+            && operationListeners.isEmpty()
+            && spanLinksExtractors.isEmpty()
+            && contextCustomizers.isEmpty();
   }
 
   /**
@@ -168,15 +181,16 @@ public class Instrumenter<REQUEST, RESPONSE> {
       spanBuilder.setStartTimestamp(startTime);
     }
 
+    if (sampledOutFastPath) {
+      return doStartSampledOutFastPath(parentContext, request, spanKind, spanBuilder);
+    }
+
     SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
     for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
       spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
-    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
-      extractor.onStart(attributes, parentContext, request);
-    }
+    UnsafeAttributes attributes = extractStartAttributes(parentContext, request);
 
     Context context = parentContext;
 
@@ -208,6 +222,35 @@ public class Instrumenter<REQUEST, RESPONSE> {
     return spanSuppressor.storeInContext(context, spanKind, span);
   }
 
+  private UnsafeAttributes extractStartAttributes(Context parentContext, REQUEST request) {
+    UnsafeAttributes attributes = new UnsafeAttributes(startAttributesCapacity);
+    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
+      extractor.onStart(attributes, parentContext, request);
+    }
+    if (attributes.size() > startAttributesCapacity) {
+      startAttributesCapacity = attributes.size();
+    }
+    return attributes;
+  }
+
+  private Context doStartSampledOutFastPath(
+      Context parentContext, REQUEST request, SpanKind spanKind, SpanBuilder spanBuilder) {
+    boolean localRoot = LocalRootSpan.isLocalRoot(parentContext);
+
+    // start the span first so that the sampling decision is known before any extractor runs
+    Span span = spanBuilder.setParent(parentContext).startSpan();
+    if (span.isRecording()) {
+      span.setAllAttributes(extractStartAttributes(parentContext, request));
+    }
+
+    Context context = parentContext.with(span);
+    if (localRoot) {
+      context = LocalRootSpan.store(context, span);
+    }
+
+    return spanSuppressor.storeInContext(context, spanKind, span);
+  }
+
   private void doEnd(
       Context context,
       REQUEST request,
@@ -216,15 +259,24 @@ public class Instrumenter<REQUEST, RESPONSE> {
       @Nullable Instant endTime) {
     Span span = Span.fromContext(context);
 
+    if (sampledOutFastPath && !span.isRecording()) {
+      // nothing is going to consume the end attributes nor the span status
+      endSpan(span, endTime);
+      return;
+    }
+
     if (error != null) {
       error = errorCauseExtractor.extract(error);
       span.recordException(error);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
+    UnsafeAttributes attributes = new UnsafeAttributes(endAttributesCapacity);
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onEnd(attributes, context, request, response, error);
     }
+    if (attributes.size() > endAttributesCapacity) {
+      endAttributesCapacity = attributes.size();
+    }
     span.setAllAttributes(attributes);
 
     if (!operationListeners.isEmpty()) {
@@ -239,6 +291,10 @@ public class Instrumenter<REQUEST, RESPONSE> {
     SpanStatusBuilder spanStatusBuilder = new SpanStatusBuilderImpl(span);
     spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
 
+    endSpan(span, endTime);
+  }
+
+  private static void endSpan(Span span, @Nullable Instant endTime) {
     if (endTime != null) {
       span.end(endTime);
     } else {
@@ -43,6 +43,9 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       SpanSuppressionStrategy.fromConfig(
           ConfigPropertiesUtil.getString(
               "otel.instrumentation.experimental.span-suppression-strategy"));
+  private static final boolean sampledOutFastPathEnabledByDefault =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.sampled-out-fast-path.enabled", false);
 
   final OpenTelemetry openTelemetry;
   final String instrumentationName;
@@ -62,6 +65,7 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       SpanStatusExtractor.getDefault();
   ErrorCauseExtractor errorCauseExtractor = ErrorCauseExtractor.getDefault();
   boolean enabled = true;
+  boolean sampledOutFastPathEnabled = sampledOutFastPathEnabledByDefault;
 
   InstrumenterBuilder(
       OpenTelemetry openTelemetry,
@@ -187,6 +191,21 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
     return this;
   }
 
+  /**
+   * Allows enabling the sampled-out fast path. When enabled, and the {@link Instrumenter} has no
+   * {@link OperationListener}s, {@link SpanLinksExtractor}s or {@link ContextCustomizer}s, the span
+   * is started before any {@link AttributesExtractor} runs; if the sampler decides not to record
+   * it, the attributes extractors are skipped both on start and on end. Note that in this mode the
+   * sampler does not see the start attributes.
+   */
+  // TODO: candidate for public API
+  @CanIgnoreReturnValue
+  InstrumenterBuilder<REQUEST, RESPONSE> setSampledOutFastPathEnabled(
+      boolean sampledOutFastPathEnabled) {
+    this.sampledOutFastPathEnabled = sampledOutFastPathEnabled;
+    return this;
+  }
+
   /**
    * Returns a new {@link Instrumenter} which will create {@linkplain SpanKind#CLIENT client} spans
    * and inject context into requests with the passed {@link TextMapSetter}.
@@ -9,9 +9,12 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
 /**
  * The {@link AttributesBuilder} and {@link Attributes} used by the instrumentation API. We are able
@@ -19,23 +22,61 @@ import java.util.function.BiConsumer;
  * multiple Attributes instances. So we use just one storage for both the builder and attributes. A
  * couple of methods still require copying to satisfy the interface contracts, but in practice
  * should never be called by user code even though they can.
+ *
+ * <p>The storage is a flat array of alternating keys and values. Attributes extractor chains
+ * usually produce no more than a couple dozen entries, so a linear scan on {@code put} is cheaper
+ * than hashing and does not allocate a node per entry.
  */
-final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
-    implements Attributes, AttributesBuilder {
+final class UnsafeAttributes implements Attributes, AttributesBuilder {
 
-  private static final long serialVersionUID = 1L;
+  private static final int DEFAULT_CAPACITY = 8;
+
+  // alternating keys and values
+  private Object[] data;
+  private int size;
+
+  UnsafeAttributes() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  UnsafeAttributes(int capacity) {
+    data = new Object[(capacity > 0 ? capacity : DEFAULT_CAPACITY) * 2];
+  }
 
   // Attributes
 
+  @Nullable
   @SuppressWarnings("unchecked")
   @Override
   public <T> T get(AttributeKey<T> key) {
-    return (T) super.get(key);
+    int index = indexOf(key);
+    return index < 0 ? null : (T) data[index + 1];
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
+    for (int i = 0; i < size * 2; i += 2) {
+      action.accept((AttributeKey<?>) data[i], data[i + 1]);
+    }
   }
 
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  // This can be called by user code in a RequestListener so copy. In practice, it should not be
+  // called as there is no real use case.
   @Override
   public Map<AttributeKey<?>, Object> asMap() {
-    return this;
+    Map<AttributeKey<?>, Object> map = new HashMap<>();
+    forEach(map::put);
+    return map;
   }
 
   // This can be called by user code in a RequestListener so copy. In practice, it should not be
@@ -63,22 +104,79 @@ final class UnsafeAttributes extends HashMap<AttributeKey<?>, Object>
   @Override
   @CanIgnoreReturnValue
   public <T> AttributesBuilder put(AttributeKey<T> key, T value) {
-    super.put(key, value);
+    if (key == null) {
+      return this;
+    }
+    if (value == null) {
+      return remove(key);
+    }
+    int index = indexOf(key);
+    if (index >= 0) {
+      data[index + 1] = value;
+      return this;
+    }
+    if (size * 2 == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[size * 2] = key;
+    data[size * 2 + 1] = value;
+    size++;
     return this;
   }
 
   @Override
   @CanIgnoreReturnValue
   public AttributesBuilder putAll(Attributes attributes) {
-    attributes.forEach(this::put);
+    attributes.forEach(this::putUnchecked);
     return this;
   }
 
   @Override
-  public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> action) {
-    // https://github.com/open-telemetry/opentelemetry-java/issues/4161
-    // Help out android desugaring by having an explicit call to HashMap.forEach, when forEach is
-    // just called through Attributes.forEach desugaring is unable to correctly handle it.
-    super.forEach(action);
+  @CanIgnoreReturnValue
+  public <T> AttributesBuilder remove(AttributeKey<T> key) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      removeAt(index);
+    }
+    return this;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public AttributesBuilder removeIf(Predicate<AttributeKey<?>> filter) {
+    for (int i = size * 2 - 2; i >= 0; i -= 2) {
+      if (filter.test((AttributeKey<?>) data[i])) {
+        removeAt(i);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void putUnchecked(AttributeKey<?> key, Object value) {
+    put((AttributeKey<Object>) key, value);
+  }
+
+  private int indexOf(AttributeKey<?> key) {
+    for (int i = 0; i < size * 2; i += 2) {
+      Object current = data[i];
+      if (current == key || current.equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void removeAt(int index) {
+    int last = size * 2 - 2;
+    System.arraycopy(data, index + 2, data, index, last - index);
+    data[last] = null;
+    data[last + 1] = null;
+    size--;
   }
 }
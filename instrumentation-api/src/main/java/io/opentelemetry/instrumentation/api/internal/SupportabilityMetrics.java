@@ -13,6 +13,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.logging.Logger;
 
 /**
@@ -26,6 +27,7 @@ public final class SupportabilityMetrics {
 
   private final ConcurrentMap<String, KindCounters> suppressionCounters = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongSupplier> registeredCounters = new ConcurrentHashMap<>();
 
   private static final SupportabilityMetrics INSTANCE =
       new SupportabilityMetrics(
@@ -60,6 +62,24 @@ public final class SupportabilityMetrics {
     counters.computeIfAbsent(counterName, k -> new AtomicLong()).incrementAndGet();
   }
 
+  /** Returns whether the supportability metrics are collected and reported. */
+  public boolean isEnabled() {
+    return agentDebugEnabled;
+  }
+
+  /**
+   * Registers a counter that is maintained by the caller, e.g. because it is incremented too often
+   * to go through {@link #incrementCounter(String)}. The {@code getAndReset} supplier is called on
+   * every report and must return the count since the previous call.
+   */
+  public void registerCounter(String counterName, LongSupplier getAndReset) {
+    if (!agentDebugEnabled) {
+      return;
+    }
+
+    registeredCounters.put(counterName, getAndReset);
+  }
+
   // visible for testing
   void report() {
     suppressionCounters.forEach(
@@ -79,6 +99,13 @@ public final class SupportabilityMetrics {
             reporter.accept("Counter '" + counterName + "' : " + value);
           }
         });
+    registeredCounters.forEach(
+        (counterName, getAndReset) -> {
+          long value = getAndReset.getAsLong();
+          if (value > 0) {
+            reporter.accept("Counter '" + counterName + "' : " + value);
+          }
+        });
   }
 
   // this private method is designed for assignment of the return value
@@ -107,17 +134,6 @@ public final class SupportabilityMetrics {
     return this;
   }
 
-  /**
-   * This class is internal and is hence not for public use. Its APIs are unstable and can change at
-   * any time.
-   */
-  public static final class CounterNames {
-    public static final String SQL_STATEMENT_SANITIZER_CACHE_MISS =
-        "SqlStatementSanitizer cache miss";
-
-    private CounterNames() {}
-  }
-
   // this class is threadsafe.
   private static class KindCounters {
     private final AtomicLong server = new AtomicLong();
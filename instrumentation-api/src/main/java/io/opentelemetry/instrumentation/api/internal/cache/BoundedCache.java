@@ -0,0 +1,341 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.internal.GuardedBy;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache split into independently locked shards. Reads never take a lock: a hit only
+ * marks the entry as recently used. Writes lock a single shard, which evicts its entries using the
+ * CLOCK (second chance) approximation of LRU.
+ *
+ * <p>Optionally, a full shard admits a new entry only when the key has been requested more often
+ * recently than the key it would evict (TinyLFU). Both reads and writes count as requests. This
+ * keeps keys that are only ever seen once from pushing frequently used ones out of the cache.
+ *
+ * <p>The capacity can be changed up to the maximum capacity the cache was created with. When it is
+ * reduced, the excess entries are evicted right away.
+ */
+final class BoundedCache<K, V> implements ResizableCache<K, V> {
+
+  // shards smaller than this make the eviction order too coarse
+  private static final int MIN_SHARD_CAPACITY = 16;
+  private static final int MAX_SHARDS = 64;
+
+  private final Shard<K, V>[] shards;
+  private final int shardMask;
+  private final int maximumCapacity;
+  private final boolean recordStats;
+  private volatile int capacity;
+
+  BoundedCache(int capacity, @Nullable String name, boolean frequencyAdmission) {
+    this(capacity, capacity, name, frequencyAdmission, null, SupportabilityMetrics.instance());
+  }
+
+  // Visible for testing
+  BoundedCache(
+      int capacity,
+      @Nullable String name,
+      boolean frequencyAdmission,
+      SupportabilityMetrics supportability) {
+    this(capacity, capacity, name, frequencyAdmission, null, supportability);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  BoundedCache(
+      int capacity,
+      int maximumCapacity,
+      @Nullable String name,
+      boolean frequencyAdmission,
+      @Nullable Consumer<? super K> evictionListener,
+      SupportabilityMetrics supportability) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+    }
+    if (maximumCapacity < capacity) {
+      throw new IllegalArgumentException(
+          "maximum capacity must not be smaller than the capacity, was " + maximumCapacity);
+    }
+    // the shard count is based on the initial capacity, sizing it for the maximum capacity would
+    // leave too few entries per shard for a good eviction order while the cache is small; as reads
+    // never lock, a cache that grows beyond that only sees more contention on writes
+    int shardCount = computeShardCount(capacity);
+    shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] =
+          new Shard<>(
+              shardCapacity(capacity, shardCount, i),
+              shardCapacity(maximumCapacity, shardCount, i),
+              frequencyAdmission,
+              evictionListener);
+    }
+    shardMask = shardCount - 1;
+    this.maximumCapacity = maximumCapacity;
+    this.capacity = capacity;
+
+    recordStats = name != null && supportability.isEnabled();
+    if (recordStats) {
+      supportability.registerCounter(name + " cache hit", () -> getAndReset(shard -> shard.hits));
+      supportability.registerCounter(
+          name + " cache miss", () -> getAndReset(shard -> shard.misses));
+      supportability.registerCounter(
+          name + " cache eviction", () -> getAndReset(shard -> shard.evictions));
+    }
+  }
+
+  private static int computeShardCount(int capacity) {
+    int maxShards =
+        Math.min(MAX_SHARDS, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2);
+    int shards = 1;
+    while (shards < maxShards && capacity / (shards * 2) >= MIN_SHARD_CAPACITY) {
+      shards *= 2;
+    }
+    return shards;
+  }
+
+  private static int shardCapacity(int capacity, int shardCount, int shard) {
+    // spread the remainder over the first shards so that the total capacity is exact, but let
+    // every shard hold at least one entry
+    return Math.max(1, capacity / shardCount + (shard < capacity % shardCount ? 1 : 0));
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public void setCapacity(int capacity) {
+    if (capacity <= 0 || capacity > maximumCapacity) {
+      throw new IllegalArgumentException(
+          "capacity must be between 1 and " + maximumCapacity + ", was " + capacity);
+    }
+    this.capacity = capacity;
+    for (int i = 0; i < shards.length; i++) {
+      shards[i].setCapacity(shardCapacity(capacity, shards.length, i), recordStats);
+    }
+  }
+
+  private long getAndReset(Function<Shard<K, V>, AtomicLong> counter) {
+    long sum = 0;
+    for (Shard<K, V> shard : shards) {
+      sum += counter.apply(shard).getAndSet(0);
+    }
+    return sum;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Shard<K, V> shard = shardFor(key);
+    V value = shard.get(key, recordStats);
+    if (value != null) {
+      return value;
+    }
+    // like ConcurrentMap.computeIfAbsent() the mapping function may be called more than once for
+    // the same key when racing with other threads, but only one of the values is retained
+    value = mappingFunction.apply(key);
+    if (value == null) {
+      return null;
+    }
+    return shard.putIfAbsent(key, value, recordStats);
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    return shardFor(key).get(key, recordStats);
+  }
+
+  @Override
+  public void put(K key, V value) {
+    shardFor(key).put(key, value, recordStats);
+  }
+
+  @Override
+  public void remove(K key) {
+    shardFor(key).remove(key);
+  }
+
+  // Visible for testing
+  int size() {
+    int size = 0;
+    for (Shard<K, V> shard : shards) {
+      size += shard.map.size();
+    }
+    return size;
+  }
+
+  // Visible for testing
+  int shardCount() {
+    return shards.length;
+  }
+
+  private Shard<K, V> shardFor(K key) {
+    // ConcurrentHashMap indexes its table with the low bits of the hash code, use the high bits
+    // here so that the keys within a single shard are still spread over the whole table
+    int hash = key.hashCode() * 0x9E3779B9;
+    return shards[(hash >>> 16) & shardMask];
+  }
+
+  private static final class Shard<K, V> {
+
+    private final ConcurrentMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+
+    @GuardedBy("this")
+    private final ArrayDeque<Node<K, V>> clock = new ArrayDeque<>();
+
+    private volatile int capacity;
+
+    // updated by readers without holding the lock, see FrequencySketch
+    @Nullable private final FrequencySketch sketch;
+
+    @Nullable private final Consumer<? super K> evictionListener;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private Shard(
+        int capacity,
+        int maximumCapacity,
+        boolean frequencyAdmission,
+        @Nullable Consumer<? super K> evictionListener) {
+      this.capacity = capacity;
+      this.sketch = frequencyAdmission ? new FrequencySketch(maximumCapacity) : null;
+      this.evictionListener = evictionListener;
+    }
+
+    @Nullable
+    V get(K key, boolean recordStats) {
+      if (sketch != null) {
+        sketch.increment(key);
+      }
+      Node<K, V> node = map.get(key);
+      if (node == null) {
+        if (recordStats) {
+          misses.incrementAndGet();
+        }
+        return null;
+      }
+      // avoid writing to the shared cache line when the entry is already marked
+      if (!node.referenced) {
+        node.referenced = true;
+      }
+      if (recordStats) {
+        hits.incrementAndGet();
+      }
+      return node.value;
+    }
+
+    // the key was already counted by the get() that missed it
+    synchronized V putIfAbsent(K key, V value, boolean recordStats) {
+      Node<K, V> existing = map.get(key);
+      if (existing != null) {
+        return existing.value;
+      }
+      if (admit(key)) {
+        insert(key, value, recordStats);
+      }
+      return value;
+    }
+
+    synchronized void put(K key, V value, boolean recordStats) {
+      if (sketch != null) {
+        sketch.increment(key);
+      }
+      Node<K, V> existing = map.get(key);
+      if (existing != null) {
+        existing.value = value;
+        existing.referenced = true;
+        return;
+      }
+      if (admit(key)) {
+        insert(key, value, recordStats);
+      }
+    }
+
+    synchronized void setCapacity(int capacity, boolean recordStats) {
+      this.capacity = capacity;
+      while (clock.size() > capacity) {
+        evict(recordStats);
+      }
+    }
+
+    synchronized void remove(K key) {
+      Node<K, V> node = map.remove(key);
+      if (node != null) {
+        clock.remove(node);
+      }
+    }
+
+    @GuardedBy("this")
+    private boolean admit(K key) {
+      if (sketch == null || clock.size() < capacity) {
+        return true;
+      }
+      Node<K, V> victim = selectVictim();
+      return sketch.frequency(key) > sketch.frequency(victim.key);
+    }
+
+    @GuardedBy("this")
+    private void insert(K key, V value, boolean recordStats) {
+      // evict before inserting so that the new entry is never the one chosen for eviction
+      while (clock.size() >= capacity) {
+        evict(recordStats);
+      }
+      Node<K, V> node = new Node<>(key, value);
+      map.put(key, node);
+      clock.addLast(node);
+    }
+
+    @GuardedBy("this")
+    private void evict(boolean recordStats) {
+      Node<K, V> victim = selectVictim();
+      clock.pollFirst();
+      map.remove(victim.key, victim);
+      if (recordStats) {
+        evictions.incrementAndGet();
+      }
+      if (evictionListener != null) {
+        evictionListener.accept(victim.key);
+      }
+    }
+
+    /** Moves the next entry to evict to the head of the clock queue and returns it. */
+    @GuardedBy("this")
+    private Node<K, V> selectVictim() {
+      // every entry gets at most one second chance, which bounds the scan even when readers keep
+      // marking entries concurrently
+      int secondChances = clock.size();
+      Node<K, V> victim = clock.peekFirst();
+      while (victim.referenced && secondChances-- > 0) {
+        victim.referenced = false;
+        clock.addLast(clock.pollFirst());
+        victim = clock.peekFirst();
+      }
+      return victim;
+    }
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    volatile V value;
+    volatile boolean referenced;
+
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
@@ -5,7 +5,8 @@
 
 package io.opentelemetry.instrumentation.api.internal.cache;
 
-import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -33,9 +34,52 @@ public interface Cache<K, V> {
    * <p>Both keys and values are strongly referenced.
    */
   static <K, V> Cache<K, V> bounded(int capacity) {
-    ConcurrentLinkedHashMap<K, V> map =
-        new ConcurrentLinkedHashMap.Builder<K, V>().maximumWeightedCapacity(capacity).build();
-    return new MapBackedCache<>(map);
+    return new BoundedCache<>(capacity, null, false);
+  }
+
+  /**
+   * Returns new bounded cache whose hit, miss and eviction counts are reported through the
+   * supportability metrics under the given {@code name}.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> bounded(int capacity, String name) {
+    return new BoundedCache<>(capacity, name, false);
+  }
+
+  /**
+   * Returns new bounded cache that, once full, only admits a new entry when its key has been
+   * requested more often recently than the key of the entry it would evict. Use it for caches
+   * whose keys are mostly seen just once, so that they do not push frequently used entries out.
+   * Hit, miss and eviction counts are reported through the supportability metrics under the given
+   * {@code name}.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> boundedWithFrequencyAdmission(int capacity, String name) {
+    return new BoundedCache<>(capacity, name, true);
+  }
+
+  /**
+   * Returns new bounded cache whose capacity can be changed up to {@code maximumCapacity} after it
+   * was created. Hit, miss and eviction counts are reported through the supportability metrics
+   * under the given {@code name}, and the key of every evicted entry is passed to {@code
+   * evictionListener}.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> ResizableCache<K, V> resizable(
+      int initialCapacity,
+      int maximumCapacity,
+      String name,
+      @Nullable Consumer<? super K> evictionListener) {
+    return new BoundedCache<>(
+        initialCapacity,
+        maximumCapacity,
+        name,
+        false,
+        evictionListener,
+        SupportabilityMetrics.instance());
   }
 
   /**
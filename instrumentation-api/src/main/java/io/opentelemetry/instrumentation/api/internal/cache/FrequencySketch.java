@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+/**
+ * A count-min sketch of 4-bit counters estimating how often a key has been seen recently. Once the
+ * number of recorded occurrences reaches ten times the cache capacity all counters are halved, so
+ * that the popularity of keys that are no longer used fades out.
+ *
+ * <p>Increments don't lock, as they are done on every cache read. Racing increments may lose
+ * updates or undo a part of a concurrent halving, which only makes the estimates slightly less
+ * accurate; a counter never exceeds its maximum. Counters that have reached the maximum are not
+ * written, so reading a popular key doesn't keep invalidating the shared cache line.
+ */
+final class FrequencySketch {
+
+  private static final int MAX_FREQUENCY = 15;
+  private static final int[] SEEDS = {0x97CB3127, 0xB492B66F, 0x9AE16A3B, 0xCC9E2D51};
+
+  private final byte[] counters;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  FrequencySketch(int capacity) {
+    // reads are counted too, so popular keys saturate their counters; sixteen one byte counters
+    // per entry keep collisions with them from inflating the estimates of one-off keys
+    int size = Integer.highestOneBit(Math.max(capacity, 4) * 16 - 1) << 1;
+    counters = new byte[size];
+    mask = size - 1;
+    sampleSize = capacity * 10;
+  }
+
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int frequency = MAX_FREQUENCY;
+    for (int seed : SEEDS) {
+      frequency = Math.min(frequency, counters[indexOf(hash, seed)]);
+    }
+    return frequency;
+  }
+
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    boolean added = false;
+    for (int seed : SEEDS) {
+      int index = indexOf(hash, seed);
+      // read the counter once, so that a racing increment can't push it past the maximum
+      byte count = counters[index];
+      if (count < MAX_FREQUENCY) {
+        counters[index] = (byte) (count + 1);
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset() {
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = (byte) (counters[i] >>> 1);
+    }
+    additions /= 2;
+  }
+
+  private int indexOf(int hash, int seed) {
+    int h = (hash + seed) * seed;
+    h ^= h >>> 16;
+    return h & mask;
+  }
+
+  private static int spread(int hashCode) {
+    int h = hashCode * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+/**
+ * A bounded cache whose capacity can be changed after it was created.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface ResizableCache<K, V> extends Cache<K, V> {
+
+  /** Returns the number of entries the cache currently holds at most. */
+  int capacity();
+
+  /**
+   * Changes the number of entries the cache holds at most. When the capacity is reduced the excess
+   * entries are evicted right away.
+   */
+  void setCapacity(int capacity);
+}
@@ -9,6 +9,7 @@ import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.asser
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import io.opentelemetry.api.common.AttributeKey;
@@ -530,6 +531,65 @@ class InstrumenterTest {
     assertThat(instrumenter.shouldStart(Context.root(), "request")).isFalse();
   }
 
+  @Test
+  void sampledOutFastPath_notSampled() {
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(mockNetClientAttributes)
+            .setSampledOutFastPathEnabled(true)
+            .buildInstrumenter();
+
+    Context parent =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.create(
+                        "ff01020304050600ff0a0b0c0d0e0f00",
+                        "090a0b0c0d0e0f00",
+                        TraceFlags.getDefault(),
+                        TraceState.getDefault())));
+
+    Context context = instrumenter.start(parent, REQUEST);
+    assertThat(Span.fromContext(context).isRecording()).isFalse();
+
+    instrumenter.end(context, REQUEST, RESPONSE, new IllegalStateException("test"));
+
+    verifyNoInteractions(mockNetClientAttributes);
+    assertThat(otelTesting.getSpans()).isEmpty();
+  }
+
+  @Test
+  void sampledOutFastPath_sampled() {
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addAttributesExtractor(new AttributesExtractor2())
+            .setSampledOutFastPathEnabled(true)
+            .buildInstrumenter();
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    assertThat(LocalRootSpan.fromContextOrNull(context)).isSameAs(Span.fromContext(context));
+
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasAttributesSatisfyingExactly(
+                                equalTo(AttributeKey.stringKey("req1"), "req1_value"),
+                                equalTo(AttributeKey.stringKey("req2"), "req2_2_value"),
+                                equalTo(AttributeKey.stringKey("req3"), "req3_value"),
+                                equalTo(AttributeKey.stringKey("resp1"), "resp1_value"),
+                                equalTo(AttributeKey.stringKey("resp2"), "resp2_2_value"),
+                                equalTo(AttributeKey.stringKey("resp3"), "resp3_value"))));
+  }
+
   @Test
   void instrumentationVersion_default() {
     InstrumenterBuilder<Map<String, String>, Map<String, String>> builder =
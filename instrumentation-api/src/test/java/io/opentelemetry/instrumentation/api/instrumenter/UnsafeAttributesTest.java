@@ -83,4 +83,33 @@ class UnsafeAttributesTest {
             attributeEntry("lives", 9L),
             attributeEntry("clothes", "fur"));
   }
+
+  @Test
+  void growsBeyondInitialCapacity() {
+    UnsafeAttributes attributes = new UnsafeAttributes(1);
+    attributes.put("one", 1L);
+    attributes.put("two", 2L);
+    attributes.put("three", 3L);
+    attributes.put("two", 22L);
+
+    assertThat((Attributes) attributes)
+        .hasSize(3)
+        .containsOnly(
+            attributeEntry("one", 1L), attributeEntry("two", 22L), attributeEntry("three", 3L));
+  }
+
+  @Test
+  void remove() {
+    UnsafeAttributes attributes = new UnsafeAttributes();
+    attributes.put("one", 1L);
+    attributes.put("two", 2L);
+    attributes.put("three", 3L);
+    attributes.put("four", 4L);
+
+    attributes.remove(AttributeKey.longKey("two"));
+    attributes.put(AttributeKey.longKey("three"), null);
+    attributes.removeIf(key -> key.getKey().equals("one"));
+
+    assertThat((Attributes) attributes).containsOnly(attributeEntry("four", 4L));
+  }
 }
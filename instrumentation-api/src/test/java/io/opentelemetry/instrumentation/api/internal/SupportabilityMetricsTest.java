@@ -10,6 +10,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.opentelemetry.api.trace.SpanKind;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 
 class SupportabilityMetricsTest {
@@ -71,4 +72,19 @@ class SupportabilityMetricsTest {
             "Suppressed Spans by 'favoriteInstrumentation' (CLIENT) : 1",
             "Counter 'some counter' : 1");
   }
+
+  @Test
+  void reportsRegisteredCounters() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(true, reports::add);
+    AtomicLong counter = new AtomicLong();
+
+    metrics.registerCounter("registered counter", () -> counter.getAndSet(0));
+    counter.addAndGet(3);
+
+    metrics.report();
+    metrics.report();
+
+    assertThat(reports).containsExactly("Counter 'registered counter' : 3");
+  }
 }
@@ -8,6 +8,7 @@ package io.opentelemetry.instrumentation.api.internal.cache;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -23,18 +24,109 @@ class CacheTest {
       assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
       cache.remove("bear");
 
-      MapBackedCache<?, ?> mapBackedCache = ((MapBackedCache<?, ?>) cache);
+      BoundedCache<?, ?> boundedCache = ((BoundedCache<?, ?>) cache);
       assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
-      assertThat(mapBackedCache.size()).isEqualTo(1);
+      assertThat(boundedCache.size()).isEqualTo(1);
 
       assertThat(cache.computeIfAbsent("cat", unused -> "bark")).isEqualTo("meow");
-      assertThat(mapBackedCache.size()).isEqualTo(1);
+      assertThat(boundedCache.size()).isEqualTo(1);
 
       cache.put("dog", "bark");
       assertThat(cache.get("dog")).isEqualTo("bark");
-      assertThat(mapBackedCache.size()).isEqualTo(1);
+      assertThat(boundedCache.size()).isEqualTo(1);
       assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
     }
+
+    @Test
+    void boundedSharded() {
+      BoundedCache<Integer, Integer> cache = new BoundedCache<>(1000, null, false);
+
+      for (int i = 0; i < 10_000; i++) {
+        assertThat(cache.computeIfAbsent(i, k -> k * 2)).isEqualTo(i * 2);
+      }
+
+      assertThat(cache.size()).isEqualTo(1000);
+      assertThat(cache.get(9_999)).isEqualTo(19_998);
+    }
+
+    @Test
+    void boundedKeepsRecentlyUsedEntries() {
+      Cache<String, String> cache = Cache.bounded(2);
+
+      cache.put("cat", "meow");
+      cache.put("dog", "bark");
+      assertThat(cache.get("cat")).isEqualTo("meow");
+
+      cache.put("cow", "moo");
+      assertThat(cache.get("cat")).isEqualTo("meow");
+      assertThat(cache.get("dog")).isNull();
+      assertThat(cache.get("cow")).isEqualTo("moo");
+    }
+
+    @Test
+    void boundedWithFrequencyAdmission() {
+      Cache<String, String> cache = Cache.boundedWithFrequencyAdmission(1, "test");
+
+      cache.put("cat", "meow");
+      cache.put("cat", "meow");
+      assertThat(cache.get("cat")).isEqualTo("meow");
+
+      // seen only once, not admitted
+      assertThat(cache.computeIfAbsent("dog", unused -> "bark")).isEqualTo("bark");
+      assertThat(cache.get("dog")).isNull();
+      assertThat(cache.get("cat")).isEqualTo("meow");
+
+      // requested more often than the current entry, admitted
+      for (int i = 0; i < 3; i++) {
+        cache.computeIfAbsent("dog", unused -> "bark");
+      }
+      assertThat(cache.get("dog")).isEqualTo("bark");
+      assertThat(cache.get("cat")).isNull();
+    }
+
+    @Test
+    void boundedWithFrequencyAdmissionKeepsFrequentlyReadEntries() {
+      Cache<String, String> cache = Cache.boundedWithFrequencyAdmission(1, "test");
+
+      cache.put("cat", "meow");
+      // the only entry of the full cache is the eviction candidate for every one-off key
+      for (int i = 0; i < 10_000; i++) {
+        assertThat(cache.get("cat")).isEqualTo("meow");
+        cache.computeIfAbsent("dog" + i, unused -> "bark");
+      }
+      assertThat(cache.get("cat")).isEqualTo("meow");
+    }
+
+    @Test
+    void resizable() {
+      AtomicInteger evictions = new AtomicInteger();
+      ResizableCache<Integer, Integer> cache =
+          Cache.resizable(20, 100, "test", unused -> evictions.incrementAndGet());
+      BoundedCache<?, ?> boundedCache = ((BoundedCache<?, ?>) cache);
+
+      for (int i = 0; i < 1000; i++) {
+        cache.put(i, i);
+      }
+      assertThat(boundedCache.size()).isEqualTo(20);
+      assertThat(evictions).hasValue(980);
+
+      cache.setCapacity(100);
+      for (int i = 1000; i < 2000; i++) {
+        cache.put(i, i);
+      }
+      assertThat(cache.capacity()).isEqualTo(100);
+      assertThat(boundedCache.size()).isEqualTo(100);
+
+      // shrinking evicts the excess entries right away
+      cache.setCapacity(10);
+      assertThat(boundedCache.size()).isEqualTo(10);
+      assertThat(evictions).hasValue(1990);
+      for (int i = 2000; i < 3000; i++) {
+        cache.put(i, i);
+      }
+      assertThat(boundedCache.size()).isEqualTo(10);
+      assertThat(evictions).hasValue(2990);
+    }
   }
 
   @Nested
@@ -23,7 +23,10 @@ public final class PropagatedContext {
   @SuppressWarnings("UnusedVariable")
   private volatile Context context;
 
-  PropagatedContext() {}
+  // a plain volatile write is enough for a new instance that isn't attached to a task yet
+  PropagatedContext(Context context) {
+    this.context = context;
+  }
 
   void setContext(Context context) {
     boolean result = contextUpdater.compareAndSet(this, null, context);
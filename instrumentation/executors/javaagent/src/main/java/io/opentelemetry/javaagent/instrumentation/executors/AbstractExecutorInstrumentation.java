@@ -87,6 +87,7 @@ public abstract class AbstractExecutorInstrumentation implements TypeInstrumenta
         "java.util.concurrent.Executors$FinalizableDelegatedExecutorService",
         "java.util.concurrent.ForkJoinPool",
         "java.util.concurrent.ScheduledThreadPoolExecutor",
+        "java.util.concurrent.ThreadPerTaskExecutor",
         "java.util.concurrent.ThreadPoolExecutor",
         "org.apache.tomcat.util.threads.ThreadPoolExecutor",
         "org.eclipse.jetty.util.thread.QueuedThreadPool", // dispatch() covered in the jetty module
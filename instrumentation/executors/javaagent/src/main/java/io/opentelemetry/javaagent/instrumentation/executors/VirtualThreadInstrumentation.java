@@ -0,0 +1,37 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.executors;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/**
+ * Virtual threads are meant to be created for every task, so {@code Thread.ofVirtual().start(task)}
+ * is treated like submitting {@code task} to an executor. {@code start()} creates the thread with
+ * {@code unstarted()}, which is the method that is instrumented.
+ */
+public class VirtualThreadInstrumentation implements TypeInstrumentation {
+
+  static final String VIRTUAL_THREAD_BUILDER = "java.lang.ThreadBuilders$VirtualThreadBuilder";
+
+  @Override
+  public ElementMatcher<TypeDescription> typeMatcher() {
+    return named(VIRTUAL_THREAD_BUILDER);
+  }
+
+  @Override
+  public void transform(TypeTransformer transformer) {
+    transformer.applyAdviceToMethod(
+        named("unstarted").and(takesArguments(1)).and(takesArgument(0, Runnable.class)),
+        JavaExecutorInstrumentation.class.getName() + "$SetExecuteRunnableStateAdvice");
+  }
+}
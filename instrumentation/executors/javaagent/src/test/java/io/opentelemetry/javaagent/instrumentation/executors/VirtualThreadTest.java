@@ -0,0 +1,100 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.executors;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.testing.junit.AgentInstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.function.ThrowingConsumer;
+
+// virtual threads were added in java 21, the tests are compiled for java 8 so they use reflection
+@EnabledIf("virtualThreadsSupported")
+class VirtualThreadTest {
+
+  @RegisterExtension
+  static final InstrumentationExtension testing = AgentInstrumentationExtension.create();
+
+  static boolean virtualThreadsSupported() {
+    try {
+      startVirtualThread(() -> {});
+      return true;
+    } catch (Exception e) {
+      // not available, or a preview feature that isn't enabled on java 19 and 20
+      return false;
+    }
+  }
+
+  private static void startVirtualThread(Runnable task) throws Exception {
+    Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+    // the builder implementation is not public, its methods have to be called via the interface
+    Class.forName("java.lang.Thread$Builder")
+        .getMethod("start", Runnable.class)
+        .invoke(builder, task);
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+    return (ExecutorService)
+        Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+  }
+
+  @Test
+  void startVirtualThread() {
+    executeTwoTasks(VirtualThreadTest::startVirtualThread);
+  }
+
+  @Test
+  void executeOnVirtualThreadPerTaskExecutor() throws Exception {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    try {
+      executeTwoTasks(executor::execute);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void submitCallableToVirtualThreadPerTaskExecutor() throws Exception {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    try {
+      executeTwoTasks(task -> executor.submit((Callable<?>) task));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void executeTwoTasks(ThrowingConsumer<JavaAsyncChild> task) {
+    testing.runWithSpan(
+        "parent",
+        () -> {
+          // this child will have a span
+          JavaAsyncChild child1 = new JavaAsyncChild(true, false);
+          // this child won't
+          JavaAsyncChild child2 = new JavaAsyncChild(false, false);
+          try {
+            task.accept(child1);
+            task.accept(child2);
+          } catch (Throwable t) {
+            throw new AssertionError(t);
+          }
+          child1.waitForCompletion();
+          child2.waitForCompletion();
+        });
+    testing.waitAndAssertTraces(
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span -> span.hasName("parent").hasKind(SpanKind.INTERNAL).hasNoParent(),
+                span ->
+                    span.hasName("asyncChild")
+                        .hasKind(SpanKind.INTERNAL)
+                        .hasParent(trace.getSpan(0))));
+  }
+}
@@ -12,11 +12,14 @@ import static io.opentelemetry.javaagent.instrumentation.jdbc.JdbcSingletons.sta
 import static net.bytebuddy.matcher.ElementMatchers.isPublic;
 import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
 import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+import static net.bytebuddy.matcher.ElementMatchers.not;
 import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.instrumentation.jdbc.internal.DbRequest;
+import io.opentelemetry.instrumentation.jdbc.internal.JdbcData;
 import io.opentelemetry.javaagent.bootstrap.CallDepth;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
@@ -40,9 +43,16 @@ public class PreparedStatementInstrumentation implements TypeInstrumentation {
 
   @Override
   public void transform(TypeTransformer transformer) {
+    // batches are handled by StatementInstrumentation
     transformer.applyAdviceToMethod(
-        nameStartsWith("execute").and(takesArguments(0)).and(isPublic()),
+        nameStartsWith("execute")
+            .and(not(namedOneOf("executeBatch", "executeLargeBatch")))
+            .and(takesArguments(0))
+            .and(isPublic()),
         PreparedStatementInstrumentation.class.getName() + "$PreparedStatementAdvice");
+    transformer.applyAdviceToMethod(
+        named("addBatch").and(takesArguments(0)).and(isPublic()),
+        PreparedStatementInstrumentation.class.getName() + "$AddBatchAdvice");
   }
 
   @SuppressWarnings("unused")
@@ -95,4 +105,16 @@ public class PreparedStatementInstrumentation implements TypeInstrumentation {
       }
     }
   }
+
+  @SuppressWarnings("unused")
+  public static class AddBatchAdvice {
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void addBatch(
+        @Advice.This PreparedStatement statement, @Advice.Thrown Throwable throwable) {
+      if (throwable == null) {
+        JdbcData.addBatch(statement, null);
+      }
+    }
+  }
 }
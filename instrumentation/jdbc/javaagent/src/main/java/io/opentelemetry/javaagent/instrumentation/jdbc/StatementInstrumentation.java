@@ -12,11 +12,14 @@ import static io.opentelemetry.javaagent.instrumentation.jdbc.JdbcSingletons.sta
 import static net.bytebuddy.matcher.ElementMatchers.isPublic;
 import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
 import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
 import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.instrumentation.jdbc.internal.DbRequest;
+import io.opentelemetry.instrumentation.jdbc.internal.JdbcData;
 import io.opentelemetry.javaagent.bootstrap.CallDepth;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
@@ -42,6 +45,15 @@ public class StatementInstrumentation implements TypeInstrumentation {
     transformer.applyAdviceToMethod(
         nameStartsWith("execute").and(takesArgument(0, String.class)).and(isPublic()),
         StatementInstrumentation.class.getName() + "$StatementAdvice");
+    transformer.applyAdviceToMethod(
+        named("addBatch").and(takesArgument(0, String.class)).and(isPublic()),
+        StatementInstrumentation.class.getName() + "$AddBatchAdvice");
+    transformer.applyAdviceToMethod(
+        named("clearBatch").and(takesArguments(0)).and(isPublic()),
+        StatementInstrumentation.class.getName() + "$ClearBatchAdvice");
+    transformer.applyAdviceToMethod(
+        namedOneOf("executeBatch", "executeLargeBatch").and(takesArguments(0)).and(isPublic()),
+        StatementInstrumentation.class.getName() + "$ExecuteBatchAdvice");
   }
 
   @SuppressWarnings("unused")
@@ -95,4 +107,75 @@ public class StatementInstrumentation implements TypeInstrumentation {
       }
     }
   }
+
+  @SuppressWarnings("unused")
+  public static class AddBatchAdvice {
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void addBatch(
+        @Advice.This Statement statement,
+        @Advice.Argument(0) String sql,
+        @Advice.Thrown Throwable throwable) {
+      if (throwable == null) {
+        JdbcData.addBatch(statement, sql);
+      }
+    }
+  }
+
+  @SuppressWarnings("unused")
+  public static class ClearBatchAdvice {
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void clearBatch(@Advice.This Statement statement) {
+      JdbcData.clearBatch(statement);
+    }
+  }
+
+  @SuppressWarnings("unused")
+  public static class ExecuteBatchAdvice {
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    public static void onEnter(
+        @Advice.This Statement statement,
+        @Advice.Local("otelCallDepth") CallDepth callDepth,
+        @Advice.Local("otelRequest") DbRequest request,
+        @Advice.Local("otelContext") Context context,
+        @Advice.Local("otelScope") Scope scope) {
+      // drivers may execute the batch one statement at a time, using the same CallDepth as the
+      // other statement advices makes sure only a single span is created for the whole batch
+      callDepth = CallDepth.forClass(Statement.class);
+      if (callDepth.getAndIncrement() > 0) {
+        // the batch of a wrapped statement is executed, it won't be read again
+        JdbcData.clearBatch(statement);
+        return;
+      }
+
+      Context parentContext = currentContext();
+      request = DbRequest.createBatch(statement);
+
+      if (request == null || !statementInstrumenter().shouldStart(parentContext, request)) {
+        return;
+      }
+
+      context = statementInstrumenter().start(parentContext, request);
+      scope = context.makeCurrent();
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void stopSpan(
+        @Advice.Thrown Throwable throwable,
+        @Advice.Local("otelCallDepth") CallDepth callDepth,
+        @Advice.Local("otelRequest") DbRequest request,
+        @Advice.Local("otelContext") Context context,
+        @Advice.Local("otelScope") Scope scope) {
+      if (callDepth.decrementAndGet() > 0) {
+        return;
+      }
+
+      if (scope != null) {
+        scope.close();
+        statementInstrumenter().end(context, request, null, throwable);
+      }
+    }
+  }
 }
@@ -10,7 +10,10 @@ import io.opentelemetry.api.trace.SpanKind
 import io.opentelemetry.instrumentation.jdbc.TestConnection
 import io.opentelemetry.instrumentation.jdbc.TestDriver
 import io.opentelemetry.instrumentation.test.AgentInstrumentationSpecification
+import io.opentelemetry.instrumentation.test.asserts.TraceAssert
 import io.opentelemetry.javaagent.instrumentation.jdbc.test.ProxyStatementFactory
+import io.opentelemetry.javaagent.instrumentation.jdbc.test.RoutingDataSource
+import io.opentelemetry.javaagent.instrumentation.jdbc.test.TestDataSource
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes
 import org.apache.derby.jdbc.EmbeddedDataSource
 import org.apache.derby.jdbc.EmbeddedDriver
@@ -484,6 +487,157 @@ class JdbcInstrumentationTest extends AgentInstrumentationSpecification {
     "derby" | cpDatasources.get("c3p0").get("derby").getConnection()    | "APP"    | "CREATE TABLE PS_DERBY_C3P0 (id INTEGER not NULL, PRIMARY KEY ( id ))"   | "derby:memory:"
   }
 
+  def "prepared statement batch on #system with #connection.getClass().getCanonicalName() generates a single span"() {
+    setup:
+    def createStatement = connection.createStatement()
+    createStatement.execute("CREATE TABLE " + table + " (id INTEGER not NULL, PRIMARY KEY ( id ))")
+    createStatement.close()
+    clearExportedData()
+    PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table + " (id) VALUES (?)")
+
+    expect:
+    runWithSpan("parent") {
+      for (int i = 0; i < 3; i++) {
+        statement.setInt(1, i)
+        statement.addBatch()
+      }
+      return statement.executeBatch().length == 3
+    }
+    assertTraces(1) {
+      trace(0, 2) {
+        span(0) {
+          name "parent"
+          kind SpanKind.INTERNAL
+          hasNoParent()
+        }
+        span(1) {
+          name "INSERT ${dbNameLower}.${table}"
+          kind CLIENT
+          childOf span(0)
+          attributes {
+            "$SemanticAttributes.DB_SYSTEM" system
+            "$SemanticAttributes.DB_NAME" dbNameLower
+            "$SemanticAttributes.DB_STATEMENT" "INSERT INTO " + table + " (id) VALUES (?)"
+            "$SemanticAttributes.DB_OPERATION" "INSERT"
+            "$SemanticAttributes.DB_SQL_TABLE" table
+            "$SemanticAttributes.DB_CONNECTION_STRING" url
+            "db.operation.batch.size" 3
+          }
+        }
+      }
+    }
+
+    cleanup:
+    statement.close()
+    connection.close()
+
+    where:
+    system | connection                                            | table             | url
+    "h2"   | new Driver().connect(jdbcUrls.get("h2"), null)        | "BATCH_H2"        | "h2:mem:"
+    "h2"   | cpDatasources.get("hikari").get("h2").getConnection() | "BATCH_H2_HIKARI" | "h2:mem:"
+  }
+
+  def "statement batch with #batch on #system generates a single span"() {
+    setup:
+    def connection = new Driver().connect(jdbcUrls.get("h2"), null)
+    def table = "BATCH_H2_" + batch.toUpperCase().replace(' ', '_')
+    def createStatement = connection.createStatement()
+    createStatement.execute("CREATE TABLE " + table + " (id INTEGER)")
+    createStatement.close()
+    clearExportedData()
+    def statement = connection.createStatement()
+
+    expect:
+    runWithSpan("parent") {
+      for (String value : values) {
+        statement.addBatch("INSERT INTO " + table + " (id) VALUES (" + value + ")")
+      }
+      return statement.executeBatch().length == values.size()
+    }
+    assertTraces(1) {
+      trace(0, 2) {
+        span(0) {
+          name "parent"
+          kind SpanKind.INTERNAL
+          hasNoParent()
+        }
+        span(1) {
+          // the query text is only captured when all statements of the batch share it
+          name mixed ? dbNameLower : "INSERT ${dbNameLower}.${table}"
+          kind CLIENT
+          childOf span(0)
+          attributes {
+            "$SemanticAttributes.DB_SYSTEM" system
+            "$SemanticAttributes.DB_NAME" dbNameLower
+            if (!mixed) {
+              "$SemanticAttributes.DB_STATEMENT" "INSERT INTO " + table + " (id) VALUES (?)"
+              "$SemanticAttributes.DB_OPERATION" "INSERT"
+              "$SemanticAttributes.DB_SQL_TABLE" table
+            }
+            "$SemanticAttributes.DB_CONNECTION_STRING" "h2:mem:"
+            "db.operation.batch.size" values.size()
+          }
+        }
+      }
+    }
+
+    cleanup:
+    statement.close()
+    connection.close()
+
+    where:
+    system | batch           | values          | mixed
+    "h2"   | "identical sql" | ["1", "1", "1"] | false
+    "h2"   | "mixed sql"     | ["1", "2", "3"] | true
+  }
+
+  def "statements cleared from the batch are not reported"() {
+    setup:
+    def connection = new Driver().connect(jdbcUrls.get("h2"), null)
+    def table = "BATCH_H2_CLEARED"
+    def createStatement = connection.createStatement()
+    createStatement.execute("CREATE TABLE " + table + " (id INTEGER)")
+    createStatement.close()
+    clearExportedData()
+    def statement = connection.createStatement()
+
+    expect:
+    runWithSpan("parent") {
+      statement.addBatch("INSERT INTO " + table + " (id) VALUES (1)")
+      statement.addBatch("INSERT INTO " + table + " (id) VALUES (2)")
+      statement.clearBatch()
+      statement.addBatch("INSERT INTO " + table + " (id) VALUES (3)")
+      return statement.executeBatch().length == 1
+    }
+    assertTraces(1) {
+      trace(0, 2) {
+        span(0) {
+          name "parent"
+          kind SpanKind.INTERNAL
+          hasNoParent()
+        }
+        span(1) {
+          name "INSERT ${dbNameLower}.${table}"
+          kind CLIENT
+          childOf span(0)
+          attributes {
+            "$SemanticAttributes.DB_SYSTEM" "h2"
+            "$SemanticAttributes.DB_NAME" dbNameLower
+            "$SemanticAttributes.DB_STATEMENT" "INSERT INTO " + table + " (id) VALUES (?)"
+            "$SemanticAttributes.DB_OPERATION" "INSERT"
+            "$SemanticAttributes.DB_SQL_TABLE" table
+            "$SemanticAttributes.DB_CONNECTION_STRING" "h2:mem:"
+            "db.operation.batch.size" 1
+          }
+        }
+      }
+    }
+
+    cleanup:
+    statement.close()
+    connection.close()
+  }
+
   def "connection constructor throwing then generating correct spans after recovery using #driver connection (prepare statement = #prepareStatement)"() {
     setup:
     Connection connection = null
@@ -853,4 +1007,69 @@ class JdbcInstrumentationTest extends AgentInstrumentationSpecification {
     statement.close()
     connection.close()
   }
+
+  def "data source connections report the url of each connection"() {
+    setup:
+    def dataSource = new TestDataSource("jdbc:testdb://host1?databaseName=db1")
+
+    when:
+    selectWith(dataSource)
+    // e.g. a failover to another host
+    dataSource.url = "jdbc:testdb://host2?databaseName=db1"
+    selectWith(dataSource)
+
+    then:
+    assertTraces(2) {
+      trace(0, 1) {
+        selectSpan(it, "host1")
+      }
+      trace(1, 1) {
+        selectSpan(it, "host2")
+      }
+    }
+  }
+
+  def "routing data source connections report the database they were routed to"() {
+    setup:
+    def first = new TestDataSource("jdbc:testdb://host1?databaseName=db1")
+    def second = new TestDataSource("jdbc:testdb://host2?databaseName=db1")
+    def routingDataSource = new RoutingDataSource(first)
+
+    when:
+    selectWith(routingDataSource)
+    routingDataSource.target = second
+    selectWith(routingDataSource)
+
+    then:
+    assertTraces(2) {
+      trace(0, 1) {
+        selectSpan(it, "host1")
+      }
+      trace(1, 1) {
+        selectSpan(it, "host2")
+      }
+    }
+  }
+
+  static selectWith(DataSource dataSource) {
+    def connection = dataSource.getConnection()
+    connection.createStatement().executeQuery("SELECT 42")
+    connection.close()
+  }
+
+  static selectSpan(TraceAssert trace, String host) {
+    trace.span(0) {
+      name "SELECT db1"
+      kind CLIENT
+      hasNoParent()
+      attributes {
+        "$SemanticAttributes.DB_SYSTEM" "other_sql"
+        "$SemanticAttributes.DB_NAME" "db1"
+        "$SemanticAttributes.DB_CONNECTION_STRING" "testdb://$host"
+        "$SemanticAttributes.DB_STATEMENT" "SELECT ?"
+        "$SemanticAttributes.DB_OPERATION" "SELECT"
+        "$SemanticAttributes.NET_PEER_NAME" host
+      }
+    }
+  }
 }
@@ -0,0 +1,30 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.jdbc.test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+/** Returns the connections of whichever data source it currently routes to. */
+public class RoutingDataSource extends TestDataSource {
+
+  private volatile DataSource target;
+
+  public RoutingDataSource(DataSource target) {
+    super(null);
+    this.target = target;
+  }
+
+  public void setTarget(DataSource target) {
+    this.target = target;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return target.getConnection();
+  }
+}
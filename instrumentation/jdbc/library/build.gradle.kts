@@ -3,9 +3,12 @@
  * SPDX-License-Identifier: Apache-2.0
  */
 
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("com.github.johnrengelman.shadow")
   id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
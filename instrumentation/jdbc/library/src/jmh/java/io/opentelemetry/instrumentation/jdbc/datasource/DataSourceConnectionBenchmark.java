@@ -0,0 +1,129 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.datasource;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.jdbc.internal.JdbcUtils;
+import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Acquires connections through an {@link OpenTelemetryDataSource} from many threads. Every
+ * acquired connection is a new object, like the proxies handed out by connection pools, so its db
+ * info is computed and interned every time.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class DataSourceConnectionBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class DataSourceState {
+
+    DataSource dataSource;
+
+    @Setup
+    public void setUp() {
+      DatabaseMetaData metaData =
+          proxy(
+              DatabaseMetaData.class,
+              methodName ->
+                  methodName.equals("getURL")
+                      ? "jdbc:postgresql://db.example.com:5432/orders?user=orders"
+                      : null);
+      Properties clientInfo = new Properties();
+      DataSource delegate =
+          proxy(
+              DataSource.class,
+              methodName ->
+                  methodName.equals("getConnection")
+                      ? proxy(Connection.class, connectionMethod(metaData, clientInfo))
+                      : null);
+      dataSource = new OpenTelemetryDataSource(delegate, OpenTelemetry.noop());
+    }
+
+    private static Function<String, Object> connectionMethod(
+        DatabaseMetaData metaData, Properties clientInfo) {
+      return methodName -> {
+        if (methodName.equals("getMetaData")) {
+          return metaData;
+        }
+        return methodName.equals("getClientInfo") ? clientInfo : null;
+      };
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public DbInfo threads001(DataSourceState state) throws SQLException {
+    return acquire(state.dataSource);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public DbInfo threads016(DataSourceState state) throws SQLException {
+    return acquire(state.dataSource);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public DbInfo threads064(DataSourceState state) throws SQLException {
+    return acquire(state.dataSource);
+  }
+
+  @Benchmark
+  @Threads(256)
+  public DbInfo threads256(DataSourceState state) throws SQLException {
+    return acquire(state.dataSource);
+  }
+
+  private static DbInfo acquire(DataSource dataSource) throws SQLException {
+    // the same work the statement instrumentation does for a connection it hasn't seen yet
+    return JdbcUtils.extractDbInfo(dataSource.getConnection());
+  }
+
+  // implements the given interface, the results of the methods are looked up by their names
+  private static <T> T proxy(Class<T> type, Function<String, Object> results) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            DataSourceConnectionBenchmark.class.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> {
+              Object result = results.apply(method.getName());
+              if (result != null) {
+                return result;
+              }
+              Class<?> returnType = method.getReturnType();
+              if (returnType == boolean.class) {
+                return false;
+              }
+              if (returnType == int.class) {
+                return 0;
+              }
+              return null;
+            }));
+  }
+}
@@ -37,12 +37,51 @@ public abstract class DbRequest {
     return create(extractDbInfo(connection), dbStatementString);
   }
 
+  /**
+   * Creates a request for executing the batch of the given statement and clears the recorded
+   * batch. The query text is only captured when all statements of the batch share it.
+   */
+  @Nullable
+  public static DbRequest createBatch(Statement statement) {
+    StatementBatch batch = JdbcData.statementBatch.get(statement);
+    // the batch size is omitted when no addBatch call was recorded, e.g. for a driver whose
+    // addBatch isn't instrumented
+    Long batchSize = null;
+    String dbStatementString = null;
+    if (batch != null && batch.size() > 0) {
+      batchSize = (long) batch.size();
+      dbStatementString = batch.statement();
+      batch.clear();
+    }
+    if (statement instanceof PreparedStatement) {
+      dbStatementString = JdbcData.preparedStatement.get((PreparedStatement) statement);
+    }
+
+    Connection connection = connectionFromStatement(statement);
+    if (connection == null) {
+      return null;
+    }
+
+    return create(extractDbInfo(connection), dbStatementString, batchSize);
+  }
+
   public static DbRequest create(DbInfo dbInfo, String statement) {
-    return new AutoValue_DbRequest(dbInfo, statement);
+    return create(dbInfo, statement, null);
+  }
+
+  public static DbRequest create(DbInfo dbInfo, String statement, @Nullable Long batchSize) {
+    return new AutoValue_DbRequest(dbInfo, statement, batchSize);
   }
 
   public abstract DbInfo getDbInfo();
 
   @Nullable
   public abstract String getStatement();
+
+  /**
+   * Returns the number of statements in the executed batch, or {@code null} when no batch is
+   * executed.
+   */
+  @Nullable
+  public abstract Long getBatchSize();
 }
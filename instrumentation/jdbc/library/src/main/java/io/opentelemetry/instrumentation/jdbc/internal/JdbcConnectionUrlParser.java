@@ -10,6 +10,7 @@ import static java.util.logging.Level.FINE;
 import static java.util.regex.Pattern.CASE_INSENSITIVE;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DbSystemValues;
 import java.io.UnsupportedEncodingException;
@@ -26,6 +27,7 @@ import java.util.Properties;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 /**
  * Structured as an enum instead of a class hierarchy to allow iterating through the parsers
@@ -837,6 +839,10 @@ public enum JdbcConnectionUrlParser {
   private static final Logger logger = Logger.getLogger(JdbcConnectionUrlParser.class.getName());
 
   private static final Map<String, JdbcConnectionUrlParser> typeParsers = new HashMap<>();
+  private static final Cache<String, DbInfo> parsedUrls = Cache.bounded(100);
+  private static final String[] STANDARD_PROPERTIES = {
+    "user", "databasename", "databaseName", "servername", "serverName", "portnumber", "portNumber"
+  };
 
   static {
     for (JdbcConnectionUrlParser parser : JdbcConnectionUrlParser.values()) {
@@ -860,6 +866,25 @@ public enum JdbcConnectionUrlParser {
     if (connectionUrl == null) {
       return DEFAULT;
     }
+    // connection pools open many connections to the same url, e.g. when they warm up or after a
+    // failover, the url is only parsed for the first one
+    return parsedUrls.computeIfAbsent(
+        cacheKey(connectionUrl, props), unused -> parseUncached(connectionUrl, props));
+  }
+
+  private static String cacheKey(String connectionUrl, @Nullable Properties props) {
+    if (props == null || props.isEmpty()) {
+      return connectionUrl;
+    }
+    // only the properties that are read by populateStandardProperties() affect the result
+    StringBuilder key = new StringBuilder(connectionUrl);
+    for (String property : STANDARD_PROPERTIES) {
+      key.append('\n').append(props.get(property));
+    }
+    return key.toString();
+  }
+
+  private static DbInfo parseUncached(String connectionUrl, @Nullable Properties props) {
     // Make this easier and ignore case.
     connectionUrl = connectionUrl.toLowerCase(Locale.ROOT);
 
@@ -7,28 +7,57 @@ package io.opentelemetry.instrumentation.jdbc.internal;
 
 import io.opentelemetry.instrumentation.api.util.VirtualField;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
 
 /**
- * Holds info associated with JDBC connections and prepared statements.
+ * Holds info associated with JDBC connections and statements.
  *
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
  */
 public final class JdbcData {
 
-  private static final Map<DbInfo, WeakReference<DbInfo>> dbInfos = new WeakHashMap<>();
+  // interned db infos, the keys are their own values and refer to them weakly
+  private static final ConcurrentMap<WeakDbInfo, WeakDbInfo> dbInfos = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<DbInfo> collectedDbInfos = new ReferenceQueue<>();
   public static final VirtualField<Connection, DbInfo> connectionInfo =
       VirtualField.find(Connection.class, DbInfo.class);
   public static final VirtualField<PreparedStatement, String> preparedStatement =
       VirtualField.find(PreparedStatement.class, String.class);
+  public static final VirtualField<Statement, StatementBatch> statementBatch =
+      VirtualField.find(Statement.class, StatementBatch.class);
 
   private JdbcData() {}
 
+  /**
+   * Records a statement added to the batch of the given JDBC statement.
+   *
+   * @param sql the query text of the added statement, {@code null} for prepared statements
+   */
+  public static void addBatch(Statement statement, @Nullable String sql) {
+    StatementBatch batch = statementBatch.get(statement);
+    if (batch == null) {
+      batch = new StatementBatch();
+      statementBatch.set(statement, batch);
+    }
+    batch.add(sql);
+  }
+
+  public static void clearBatch(Statement statement) {
+    StatementBatch batch = statementBatch.get(statement);
+    if (batch != null) {
+      batch.clear();
+    }
+  }
+
   /**
    * Returns canonical representation of db info.
    *
@@ -38,16 +67,61 @@ public final class JdbcData {
    *     and a different instance later if the original interned instance was garbage collected.
    */
   public static DbInfo intern(DbInfo dbInfo) {
-    synchronized (dbInfos) {
-      WeakReference<DbInfo> reference = dbInfos.get(dbInfo);
-      if (reference != null) {
-        DbInfo result = reference.get();
-        if (result != null) {
-          return result;
+    expungeCollectedDbInfos();
+
+    WeakDbInfo key = new WeakDbInfo(dbInfo, collectedDbInfos);
+    while (true) {
+      // lookups don't lock, only adding a new db info locks a single bucket of the map
+      WeakDbInfo existing = dbInfos.get(key);
+      if (existing == null) {
+        existing = dbInfos.putIfAbsent(key, key);
+        if (existing == null) {
+          return dbInfo;
         }
       }
-      dbInfos.put(dbInfo, new WeakReference<>(dbInfo));
-      return dbInfo;
+      DbInfo result = existing.get();
+      if (result != null) {
+        return result;
+      }
+      // collected after it was found, replace it
+      dbInfos.remove(existing, existing);
+    }
+  }
+
+  private static void expungeCollectedDbInfos() {
+    Reference<? extends DbInfo> reference;
+    while ((reference = collectedDbInfos.poll()) != null) {
+      dbInfos.remove(reference);
+    }
+  }
+
+  /**
+   * Weak reference to a db info that is equal to other references to an equal db info. A collected
+   * reference is only equal to itself.
+   */
+  private static final class WeakDbInfo extends WeakReference<DbInfo> {
+    private final int hashCode;
+
+    WeakDbInfo(DbInfo dbInfo, ReferenceQueue<DbInfo> queue) {
+      super(dbInfo, queue);
+      this.hashCode = dbInfo.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof WeakDbInfo)) {
+        return false;
+      }
+      DbInfo dbInfo = get();
+      return dbInfo != null && dbInfo.equals(((WeakDbInfo) obj).get());
     }
   }
 }
@@ -40,6 +40,7 @@ public final class JdbcInstrumenterFactory {
                         "otel.instrumentation.common.db-statement-sanitizer.enabled", true))
                 .build())
         .addAttributesExtractor(NetClientAttributesExtractor.create(netAttributesGetter))
+        .addAttributesExtractor(new JdbcBatchAttributesExtractor())
         .buildInstrumenter(SpanKindExtractor.alwaysClient());
   }
 
@@ -43,6 +43,7 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
   protected final Instrumenter<DbRequest, Void> instrumenter;
 
   private final ArrayList<String> batchCommands = new ArrayList<>();
+  protected long batchSize;
 
   OpenTelemetryStatement(S delegate, DbInfo dbInfo, Instrumenter<DbRequest, Void> instrumenter) {
     this(delegate, dbInfo, null, instrumenter);
@@ -103,7 +104,12 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
 
   @Override
   public int[] executeBatch() throws SQLException {
-    return wrapCall(buildSqlForBatch(), delegate::executeBatch);
+    DbRequest request =
+        DbRequest.create(dbInfo, buildSqlForBatch(), batchSize == 0 ? null : batchSize);
+    // executing the batch clears it
+    batchCommands.clear();
+    batchSize = 0;
+    return wrapCall(request, delegate::executeBatch);
   }
 
   @Override
@@ -221,12 +227,14 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
   public void addBatch(String sql) throws SQLException {
     delegate.addBatch(sql);
     batchCommands.add(sql);
+    batchSize++;
   }
 
   @Override
   public void clearBatch() throws SQLException {
     delegate.clearBatch();
     batchCommands.clear();
+    batchSize = 0;
   }
 
   @Override
@@ -281,8 +289,12 @@ public class OpenTelemetryStatement<S extends Statement> implements Statement {
 
   protected <T, E extends Exception> T wrapCall(String sql, ThrowingSupplier<T, E> callable)
       throws E {
+    return wrapCall(DbRequest.create(dbInfo, sql), callable);
+  }
+
+  private <T, E extends Exception> T wrapCall(DbRequest request, ThrowingSupplier<T, E> callable)
+      throws E {
     Context parentContext = Context.current();
-    DbRequest request = DbRequest.create(dbInfo, sql);
 
     if (!this.instrumenter.shouldStart(parentContext, request)) {
       return callable.call();
@@ -0,0 +1,48 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the statements added to the batch of a JDBC statement. Only the number of statements is
+ * kept, along with the query text when all statements of the batch share it, so that adding a
+ * statement to the batch does not allocate.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class StatementBatch {
+
+  private int size;
+  @Nullable private String statement;
+  private boolean mixedStatements;
+
+  void add(@Nullable String sql) {
+    if (size == 0) {
+      statement = sql;
+    } else if (!mixedStatements && sql != null && !sql.equals(statement)) {
+      mixedStatements = true;
+      statement = null;
+    }
+    size++;
+  }
+
+  void clear() {
+    size = 0;
+    statement = null;
+    mixedStatements = false;
+  }
+
+  int size() {
+    return size;
+  }
+
+  @Nullable
+  String statement() {
+    return statement;
+  }
+}
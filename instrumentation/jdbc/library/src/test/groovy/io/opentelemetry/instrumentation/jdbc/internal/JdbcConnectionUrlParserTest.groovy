@@ -42,6 +42,20 @@ class JdbcConnectionUrlParserTest extends Specification {
     "bogus:string" | _
   }
 
+  def "parse results are cached per url and properties"() {
+    setup:
+    def url = "jdbc:postgresql://pg.host:11/pgdb"
+    def otherUser = new Properties()
+    otherUser.setProperty("user", "otherUserName")
+
+    expect:
+    parse(url, null).is(parse(url, null))
+    parse(url, stdProps).is(parse(url, stdProps))
+    parse(url, stdProps).user == "stdUserName"
+    parse(url, otherUser).user == "otherUserName"
+    parse(url, null).user == null
+  }
+
   def "verify #system:#subtype parsing of #url"() {
     setup:
     def info = parse(url, props)
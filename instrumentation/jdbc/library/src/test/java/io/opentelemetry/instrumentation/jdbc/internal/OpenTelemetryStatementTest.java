@@ -0,0 +1,95 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import static io.opentelemetry.instrumentation.jdbc.internal.JdbcBatchAttributesExtractor.DB_OPERATION_BATCH_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.jdbc.TestConnection;
+import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.LibraryInstrumentationExtension;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class OpenTelemetryStatementTest {
+
+  @RegisterExtension
+  static final InstrumentationExtension testing = LibraryInstrumentationExtension.create();
+
+  private static final DbInfo DB_INFO =
+      JdbcConnectionUrlParser.parse("jdbc:postgresql://127.0.0.1:5432/dbname", null);
+
+  @Test
+  void statementBatch() throws SQLException {
+    Statement statement = connection().createStatement();
+    statement.addBatch("INSERT INTO test VALUES (1)");
+    statement.addBatch("INSERT INTO test VALUES (2)");
+    statement.executeBatch();
+
+    testing.waitAndAssertTraces(
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span -> span.hasKind(SpanKind.CLIENT).hasAttribute(DB_OPERATION_BATCH_SIZE, 2L)));
+  }
+
+  @Test
+  void clearedStatementBatch() throws SQLException {
+    Statement statement = connection().createStatement();
+    statement.addBatch("INSERT INTO test VALUES (1)");
+    statement.addBatch("INSERT INTO test VALUES (2)");
+    statement.clearBatch();
+    statement.addBatch("INSERT INTO test VALUES (3)");
+    statement.executeBatch();
+    // executing the batch clears it too
+    statement.executeBatch();
+
+    testing.waitAndAssertTraces(
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span -> span.hasKind(SpanKind.CLIENT).hasAttribute(DB_OPERATION_BATCH_SIZE, 1L)),
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasKind(SpanKind.CLIENT)
+                        .satisfies(
+                            spanData ->
+                                assertThat(spanData.getAttributes().get(DB_OPERATION_BATCH_SIZE))
+                                    .isNull())));
+  }
+
+  @Test
+  void preparedStatementBatch() throws SQLException {
+    PreparedStatement statement = connection().prepareStatement("INSERT INTO test VALUES (?)");
+    for (int i = 0; i < 3; i++) {
+      statement.setInt(1, i);
+      statement.addBatch();
+    }
+    statement.executeBatch();
+
+    testing.waitAndAssertTraces(
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasKind(SpanKind.CLIENT)
+                        .hasAttribute(
+                            SemanticAttributes.DB_STATEMENT, "INSERT INTO test VALUES (?)")
+                        .hasAttribute(DB_OPERATION_BATCH_SIZE, 3L)));
+  }
+
+  private static Connection connection() {
+    return new OpenTelemetryConnection(
+        new TestConnection(),
+        DB_INFO,
+        JdbcInstrumenterFactory.createStatementInstrumenter(testing.getOpenTelemetry()));
+  }
+}
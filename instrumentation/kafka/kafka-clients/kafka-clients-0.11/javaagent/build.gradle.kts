@@ -49,10 +49,20 @@ tasks {
     include("**/KafkaClientSuppressReceiveSpansTest.*")
   }
 
+  val testProcessSampledOnly by registering(Test::class) {
+    filter {
+      includeTestsMatching("KafkaClientProcessSampledOnlyTest")
+    }
+    include("**/KafkaClientProcessSampledOnlyTest.*")
+    jvmArgs("-Dotel.instrumentation.kafka.producer-propagation.enabled=false")
+    jvmArgs("-Dotel.instrumentation.kafka.experimental-process-sampled-only=true")
+  }
+
   test {
     filter {
       excludeTestsMatching("KafkaClientPropagationDisabledTest")
       excludeTestsMatching("KafkaClientSuppressReceiveSpansTest")
+      excludeTestsMatching("KafkaClientProcessSampledOnlyTest")
     }
     jvmArgs("-Dotel.instrumentation.messaging.experimental.receive-telemetry.enabled=true")
   }
@@ -60,5 +70,6 @@ tasks {
   check {
     dependsOn(testPropagationDisabled)
     dependsOn(testReceiveSpansDisabled)
+    dependsOn(testProcessSampledOnly)
   }
 }
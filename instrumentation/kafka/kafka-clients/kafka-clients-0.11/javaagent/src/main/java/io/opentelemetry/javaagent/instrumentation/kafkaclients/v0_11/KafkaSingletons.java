@@ -30,6 +30,12 @@ public final class KafkaSingletons {
           "otel.instrumentation.kafka.client-propagation.enabled",
           "otel.instrumentation.kafka.producer-propagation.enabled",
           true);
+  // process spans are only created for records that were produced in a sampled trace, records
+  // without a propagated context are not traced at all; the context of records produced in a trace
+  // that was not sampled is still made current while they are processed
+  private static final boolean PROCESS_SAMPLED_ONLY =
+      InstrumentationConfig.get()
+          .getBoolean("otel.instrumentation.kafka.experimental-process-sampled-only", false);
   private static final boolean METRICS_ENABLED =
       InstrumentationConfig.get()
           .getBoolean("otel.instrumentation.kafka.metric-reporter.enabled", true);
@@ -60,6 +66,10 @@ public final class KafkaSingletons {
     return PRODUCER_PROPAGATION_ENABLED;
   }
 
+  public static boolean isProcessSampledOnly() {
+    return PROCESS_SAMPLED_ONLY;
+  }
+
   public static Instrumenter<KafkaProducerRequest, RecordMetadata> producerInstrumenter() {
     return PRODUCER_INSTRUMENTER;
   }
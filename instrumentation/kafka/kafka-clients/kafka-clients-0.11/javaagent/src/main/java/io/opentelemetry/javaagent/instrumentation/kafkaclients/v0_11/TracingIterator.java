@@ -6,11 +6,15 @@
 package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
 
 import static io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11.KafkaSingletons.consumerProcessInstrumenter;
+import static io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11.KafkaSingletons.isProcessSampledOnly;
 
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContext;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaProcessRequest;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaPropagation;
 import io.opentelemetry.javaagent.bootstrap.kafka.KafkaClientsConsumerProcessTracing;
 import java.util.Iterator;
 import javax.annotation.Nullable;
@@ -66,18 +70,45 @@ public class TracingIterator<K, V> implements Iterator<ConsumerRecord<K, V>> {
     // (https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/1947)
     ConsumerRecord<K, V> next = delegateIterator.next();
     if (next != null && KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
-      currentRequest = KafkaProcessRequest.create(consumerContext, next);
-      currentContext = consumerProcessInstrumenter().start(parentContext, currentRequest);
-      currentScope = currentContext.makeCurrent();
+      if (isProcessSampledOnly()) {
+        startSampledOnly(next);
+      } else {
+        start(next);
+      }
     }
     return next;
   }
 
+  private void start(ConsumerRecord<K, V> record) {
+    currentRequest = KafkaProcessRequest.create(consumerContext, record);
+    currentContext = consumerProcessInstrumenter().start(parentContext, currentRequest);
+    currentScope = currentContext.makeCurrent();
+  }
+
+  private void startSampledOnly(ConsumerRecord<K, V> record) {
+    Context producerContext = KafkaPropagation.extractContext(parentContext, record);
+    SpanContext producerSpanContext = Span.fromContext(producerContext).getSpanContext();
+    // only an extracted span context is remote, the receive span is not
+    if (!producerSpanContext.isRemote()) {
+      // nothing was propagated with the record, it is not traced
+      return;
+    }
+    if (producerSpanContext.isSampled()) {
+      start(record);
+    } else {
+      // skips the request and span but keeps the producer's trace current while the record is
+      // processed, so that it is still propagated downstream
+      currentScope = producerContext.makeCurrent();
+    }
+  }
+
   private void closeScopeAndEndSpan() {
     if (currentScope != null) {
       currentScope.close();
-      consumerProcessInstrumenter().end(currentContext, currentRequest, null, null);
       currentScope = null;
+    }
+    if (currentRequest != null) {
+      consumerProcessInstrumenter().end(currentContext, currentRequest, null, null);
       currentRequest = null;
       currentContext = null;
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaClientBaseTest;
+import io.opentelemetry.instrumentation.testing.junit.AgentInstrumentationExtension;
+import io.opentelemetry.instrumentation.testing.junit.InstrumentationExtension;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+// producer propagation is disabled so that the test controls the traceparent header of the records
+class KafkaClientProcessSampledOnlyTest extends KafkaClientBaseTest {
+  @RegisterExtension
+  static final InstrumentationExtension testing = AgentInstrumentationExtension.create();
+
+  private static final String SAMPLED_TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+  private static final String UNSAMPLED_TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+  // a special parent id that marks the trace as complete for the test runner
+  private static final String SPAN_ID = "0000000000000456";
+
+  @Test
+  void testProcessSampledRecordsOnly()
+      throws ExecutionException, InterruptedException, TimeoutException {
+    send(1, "00-" + SAMPLED_TRACE_ID + "-" + SPAN_ID + "-01");
+    send(2, "00-" + UNSAMPLED_TRACE_ID + "-" + SPAN_ID + "-00");
+    send(3, null);
+
+    awaitUntilConsumerIsReady();
+    @SuppressWarnings("PreferJavaTimeOverload")
+    ConsumerRecords<Integer, String> records = consumer.poll(Duration.ofSeconds(5).toMillis());
+    assertThat(records.count()).isEqualTo(3);
+
+    Map<Integer, SpanContext> currentSpanContexts = new HashMap<>();
+    for (ConsumerRecord<Integer, String> record : records) {
+      currentSpanContexts.put(record.key(), Span.current().getSpanContext());
+    }
+
+    // the process span of the sampled record is current
+    SpanContext sampled = currentSpanContexts.get(1);
+    assertThat(sampled.getTraceId()).isEqualTo(SAMPLED_TRACE_ID);
+    assertThat(sampled.isSampled()).isTrue();
+    assertThat(sampled.isRemote()).isFalse();
+    // the producer's trace of the unsampled record is current, without a process span
+    assertThat(currentSpanContexts.get(2))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                UNSAMPLED_TRACE_ID, SPAN_ID, TraceFlags.getDefault(), TraceState.getDefault()));
+    // nothing is current for the record without a propagated context
+    assertThat(currentSpanContexts.get(3).isValid()).isFalse();
+    assertThat(Span.current().getSpanContext().isValid()).isFalse();
+
+    testing.waitAndAssertTraces(
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " send")
+                        .hasKind(SpanKind.PRODUCER)
+                        .hasNoParent()
+                        .hasAttributesSatisfyingExactly(sendAttributes("1", "1", false))),
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " send")
+                        .hasKind(SpanKind.PRODUCER)
+                        .hasNoParent()
+                        .hasAttributesSatisfyingExactly(sendAttributes("2", "2", false))),
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " send")
+                        .hasKind(SpanKind.PRODUCER)
+                        .hasNoParent()
+                        .hasAttributesSatisfyingExactly(sendAttributes("3", "3", false))),
+        trace ->
+            trace.hasSpansSatisfyingExactly(
+                span ->
+                    span.hasName(SHARED_TOPIC + " process")
+                        .hasKind(SpanKind.CONSUMER)
+                        .hasTraceId(SAMPLED_TRACE_ID)
+                        .hasSpanId(sampled.getSpanId())
+                        .hasParentSpanId(SPAN_ID)
+                        .hasAttributesSatisfyingExactly(processAttributes("1", "1", false))));
+  }
+
+  private void send(int key, @Nullable String traceparent)
+      throws ExecutionException, InterruptedException, TimeoutException {
+    RecordHeaders headers = new RecordHeaders();
+    if (traceparent != null) {
+      headers.add("traceparent", traceparent.getBytes(UTF_8));
+    }
+    producer
+        .send(new ProducerRecord<>(SHARED_TOPIC, null, key, String.valueOf(key), headers))
+        .get(5, TimeUnit.SECONDS);
+  }
+}
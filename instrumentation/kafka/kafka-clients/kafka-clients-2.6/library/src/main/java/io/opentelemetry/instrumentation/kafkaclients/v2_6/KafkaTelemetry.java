@@ -16,6 +16,7 @@ import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaHeadersSetter;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaProcessRequest;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaProducerRequest;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaTraceContextPropagator;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaUtil;
 import io.opentelemetry.instrumentation.kafka.internal.OpenTelemetryMetricsReporter;
 import io.opentelemetry.instrumentation.kafka.internal.OpenTelemetrySupplier;
@@ -74,7 +75,7 @@ public final class KafkaTelemetry {
   }
 
   private TextMapPropagator propagator() {
-    return openTelemetry.getPropagators().getTextMapPropagator();
+    return KafkaTraceContextPropagator.wrap(openTelemetry.getPropagators().getTextMapPropagator());
   }
 
   /** Returns a decorated {@link Producer} that emits spans for each sent message. */
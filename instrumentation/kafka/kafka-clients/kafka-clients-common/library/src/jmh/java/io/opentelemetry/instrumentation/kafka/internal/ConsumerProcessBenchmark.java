@@ -0,0 +1,151 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Processes a batch of 10k records of which 1% were produced in a sampled trace, creating a
+ * process span for every record or only for the records with a sampled parent.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class ConsumerProcessBenchmark {
+
+  private static final int RECORD_COUNT = 10_000;
+  private static final int SAMPLED_EVERY = 100;
+
+  private ConsumerRecords<String, String> records;
+  private Instrumenter<KafkaProcessRequest, Void> instrumenter;
+  private TextMapPropagator propagator;
+
+  @Setup
+  public void setUp() {
+    List<ConsumerRecord<String, String>> recordList = new ArrayList<>(RECORD_COUNT);
+    for (int i = 0; i < RECORD_COUNT; i++) {
+      RecordHeaders headers = new RecordHeaders();
+      String traceparent =
+          String.format(
+              Locale.ROOT,
+              "00-%032x-%016x-%s",
+              i + 1,
+              i + 1,
+              i % SAMPLED_EVERY == 0 ? "01" : "00");
+      headers.add("traceparent", traceparent.getBytes(UTF_8));
+      recordList.add(
+          new ConsumerRecord<>(
+              "topic",
+              0,
+              i,
+              0,
+              TimestampType.CREATE_TIME,
+              0L,
+              0,
+              0,
+              "key",
+              "value",
+              headers));
+    }
+    records =
+        new ConsumerRecords<>(
+            Collections.singletonMap(new TopicPartition("topic", 0), recordList));
+
+    OpenTelemetrySdk openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setTracerProvider(
+                SdkTracerProvider.builder()
+                    .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(0.01)))
+                    .build())
+            .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+            .build();
+    instrumenter =
+        new KafkaInstrumenterFactory(openTelemetry, "benchmark")
+            .createConsumerProcessInstrumenter();
+    propagator =
+        KafkaTraceContextPropagator.wrap(openTelemetry.getPropagators().getTextMapPropagator());
+
+    int sampledRecords = 0;
+    for (ConsumerRecord<String, String> record : records) {
+      if (hasSampledParent(record)) {
+        sampledRecords++;
+      }
+    }
+    if (sampledRecords != RECORD_COUNT / SAMPLED_EVERY) {
+      throw new IllegalStateException(
+          "expected " + RECORD_COUNT / SAMPLED_EVERY + " sampled records, got " + sampledRecords);
+    }
+  }
+
+  @Benchmark
+  public int everyRecord() {
+    int processed = 0;
+    for (ConsumerRecord<String, String> record : records) {
+      processed += process(record);
+    }
+    return processed;
+  }
+
+  @Benchmark
+  public int sampledRecordsOnly() {
+    int processed = 0;
+    for (ConsumerRecord<String, String> record : records) {
+      if (hasSampledParent(record)) {
+        processed += process(record);
+      }
+    }
+    return processed;
+  }
+
+  private boolean hasSampledParent(ConsumerRecord<String, String> record) {
+    return Span.fromContext(KafkaPropagation.extractContext(propagator, Context.root(), record))
+        .getSpanContext()
+        .isSampled();
+  }
+
+  private int process(ConsumerRecord<String, String> record) {
+    KafkaProcessRequest request = KafkaProcessRequest.create(record, "group", "client");
+    Context context = instrumenter.start(Context.root(), request);
+    try (Scope ignored = context.makeCurrent()) {
+      return record.value().length();
+    } finally {
+      instrumenter.end(context, request, null, null);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extracts the parent context from and injects it into the headers of a Kafka record with the
+ * default W3C trace context and baggage propagators, as they are and with the {@code traceparent}
+ * header handled on its bytes.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class KafkaTraceContextPropagatorBenchmark {
+
+  private TextMapPropagator propagator;
+  private TextMapPropagator bytePropagator;
+  private KafkaProcessRequest request;
+  private Context context;
+
+  @Setup
+  public void setUp() {
+    propagator =
+        TextMapPropagator.composite(
+            W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance());
+    bytePropagator = KafkaTraceContextPropagator.wrap(propagator);
+
+    RecordHeaders headers = new RecordHeaders();
+    headers.add(
+        "traceparent",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01".getBytes(UTF_8));
+    request =
+        KafkaProcessRequest.create(
+            new ConsumerRecord<>(
+                "topic",
+                0,
+                0,
+                0,
+                TimestampType.CREATE_TIME,
+                0L,
+                0,
+                0,
+                "key",
+                "value",
+                headers),
+            null,
+            null);
+    context =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.createFromRemoteParent(
+                        "0af7651916cd43dd8448eb211c80319c",
+                        "b7ad6b7169203331",
+                        TraceFlags.getSampled(),
+                        TraceState.getDefault())));
+  }
+
+  @Benchmark
+  public Context extractString() {
+    return propagator.extract(Context.root(), request, KafkaConsumerRecordGetter.INSTANCE);
+  }
+
+  @Benchmark
+  public Context extractBytes() {
+    return bytePropagator.extract(Context.root(), request, KafkaConsumerRecordGetter.INSTANCE);
+  }
+
+  @Benchmark
+  public Headers injectString() {
+    Headers headers = new RecordHeaders();
+    propagator.inject(context, headers, KafkaHeadersSetter.INSTANCE);
+    return headers;
+  }
+
+  @Benchmark
+  public Headers injectBytes() {
+    Headers headers = new RecordHeaders();
+    bytePropagator.inject(context, headers, KafkaHeadersSetter.INSTANCE);
+    return headers;
+  }
+}
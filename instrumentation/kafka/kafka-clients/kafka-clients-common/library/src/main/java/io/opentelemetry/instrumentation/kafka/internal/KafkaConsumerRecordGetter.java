@@ -7,8 +7,8 @@ package io.opentelemetry.instrumentation.kafka.internal;
 
 import io.opentelemetry.context.propagation.TextMapGetter;
 import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 import org.apache.kafka.common.header.Header;
 
@@ -17,14 +17,17 @@ enum KafkaConsumerRecordGetter implements TextMapGetter<KafkaProcessRequest> {
 
   @Override
   public Iterable<String> keys(KafkaProcessRequest carrier) {
-    return StreamSupport.stream(carrier.getRecord().headers().spliterator(), false)
-        .map(Header::key)
-        .collect(Collectors.toList());
+    List<String> keys = new ArrayList<>();
+    for (Header header : carrier.getRecord().headers()) {
+      keys.add(header.key());
+    }
+    return keys;
   }
 
   @Nullable
   @Override
   public String get(@Nullable KafkaProcessRequest carrier, String key) {
+    // only the value of the requested header is decoded
     Header header = carrier.getRecord().headers().lastHeader(key);
     if (header == null) {
       return null;
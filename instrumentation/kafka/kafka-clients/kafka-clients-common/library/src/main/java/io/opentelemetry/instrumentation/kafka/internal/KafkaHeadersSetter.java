@@ -18,6 +18,11 @@ public enum KafkaHeadersSetter implements TextMapSetter<Headers> {
 
   @Override
   public void set(Headers headers, String key, String value) {
-    headers.remove(key).add(key, value.getBytes(StandardCharsets.UTF_8));
+    set(headers, key, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Replaces the header with the given key with a header with the given, already encoded value. */
+  public void set(Headers headers, String key, byte[] value) {
+    headers.remove(key).add(key, value);
   }
 }
@@ -9,6 +9,10 @@ import static java.util.Collections.emptyList;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.ErrorCauseExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
@@ -126,9 +130,11 @@ public final class KafkaInstrumenterFactory {
 
     KafkaConsumerAttributesGetter getter = KafkaConsumerAttributesGetter.INSTANCE;
 
+    TextMapPropagator propagator =
+        KafkaTraceContextPropagator.wrap(openTelemetry.getPropagators().getTextMapPropagator());
     InstrumenterBuilder<KafkaProcessRequest, Void> builder =
         Instrumenter.<KafkaProcessRequest, Void>builder(
-                openTelemetry,
+                withPropagator(openTelemetry, propagator),
                 instrumentationName,
                 MessagingSpanNameExtractor.create(getter, operation))
             .addAttributesExtractor(
@@ -142,9 +148,7 @@ public final class KafkaInstrumenterFactory {
 
     if (messagingReceiveInstrumentationEnabled) {
       builder.addSpanLinksExtractor(
-          new PropagatorBasedSpanLinksExtractor<>(
-              openTelemetry.getPropagators().getTextMapPropagator(),
-              KafkaConsumerRecordGetter.INSTANCE));
+          new PropagatorBasedSpanLinksExtractor<>(propagator, KafkaConsumerRecordGetter.INSTANCE));
       return builder.buildInstrumenter(SpanKindExtractor.alwaysConsumer());
     } else {
       return builder.buildConsumerInstrumenter(KafkaConsumerRecordGetter.INSTANCE);
@@ -164,7 +168,8 @@ public final class KafkaInstrumenterFactory {
         .addAttributesExtractor(KafkaReceiveAttributesExtractor.INSTANCE)
         .addSpanLinksExtractor(
             new KafkaBatchProcessSpanLinksExtractor(
-                openTelemetry.getPropagators().getTextMapPropagator()))
+                KafkaTraceContextPropagator.wrap(
+                    openTelemetry.getPropagators().getTextMapPropagator())))
         .setErrorCauseExtractor(errorCauseExtractor)
         .buildInstrumenter(SpanKindExtractor.alwaysConsumer());
   }
@@ -178,4 +183,39 @@ public final class KafkaInstrumenterFactory {
         .setCapturedHeaders(capturedHeaders)
         .build();
   }
+
+  // the consumer instrumenter extracts the parent context with the propagators of the
+  // OpenTelemetry instance it is built with
+  private static OpenTelemetry withPropagator(
+      OpenTelemetry openTelemetry, TextMapPropagator propagator) {
+    if (openTelemetry.getPropagators().getTextMapPropagator() == propagator) {
+      return openTelemetry;
+    }
+    return new PropagatorOverridingOpenTelemetry(openTelemetry, propagator);
+  }
+
+  private static final class PropagatorOverridingOpenTelemetry implements OpenTelemetry {
+    private final OpenTelemetry delegate;
+    private final ContextPropagators propagators;
+
+    PropagatorOverridingOpenTelemetry(OpenTelemetry delegate, TextMapPropagator propagator) {
+      this.delegate = delegate;
+      this.propagators = ContextPropagators.create(propagator);
+    }
+
+    @Override
+    public TracerProvider getTracerProvider() {
+      return delegate.getTracerProvider();
+    }
+
+    @Override
+    public MeterProvider getMeterProvider() {
+      return delegate.getMeterProvider();
+    }
+
+    @Override
+    public ContextPropagators getPropagators() {
+      return propagators;
+    }
+  }
 }
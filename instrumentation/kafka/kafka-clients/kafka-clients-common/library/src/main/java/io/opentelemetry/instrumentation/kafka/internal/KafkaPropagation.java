@@ -7,7 +7,9 @@ package io.opentelemetry.instrumentation.kafka.internal;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
 import org.apache.kafka.clients.ApiVersions;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.record.RecordBatch;
 
@@ -51,10 +53,33 @@ public final class KafkaPropagation {
   }
 
   private static <K, V> void inject(Context context, ProducerRecord<K, V> record) {
-    GlobalOpenTelemetry.getPropagators()
-        .getTextMapPropagator()
+    KafkaTraceContextPropagator.wrap(GlobalOpenTelemetry.getPropagators().getTextMapPropagator())
         .inject(context, record.headers(), SETTER);
   }
 
+  /**
+   * Returns the given context with the context propagated with the record, extracted with the
+   * configured propagator like the consumer instrumenter does. When the configured propagator is
+   * handled by {@link KafkaTraceContextPropagator}, a version 00 {@code traceparent} header is
+   * parsed straight from the header bytes.
+   */
+  public static Context extractContext(Context context, ConsumerRecord<?, ?> record) {
+    return extractContext(
+        KafkaTraceContextPropagator.wrap(
+            GlobalOpenTelemetry.getPropagators().getTextMapPropagator()),
+        context,
+        record);
+  }
+
+  /**
+   * Returns the given context with the context propagated with the record, extracted with the
+   * given propagator. The headers of the record are the carrier, so unlike in the instrumenter no
+   * {@link KafkaProcessRequest} has to be allocated for the record.
+   */
+  public static Context extractContext(
+      TextMapPropagator propagator, Context context, ConsumerRecord<?, ?> record) {
+    return propagator.extract(context, record.headers(), KafkaHeadersGetter.INSTANCE);
+  }
+
   private KafkaPropagation() {}
 }
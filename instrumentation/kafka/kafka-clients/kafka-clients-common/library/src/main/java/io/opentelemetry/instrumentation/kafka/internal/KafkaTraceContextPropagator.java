@@ -0,0 +1,210 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static java.util.Arrays.asList;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Propagates the W3C trace context straight from and to the {@code byte[]} values of Kafka record
+ * headers, without decoding the {@code traceparent} header or formatting it as a string first.
+ * Everything but the {@code traceparent} header is left to the wrapped propagator.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class KafkaTraceContextPropagator implements TextMapPropagator {
+
+  static final String TRACEPARENT = "traceparent";
+  private static final String TRACESTATE = "tracestate";
+  // 00-<32 hex trace id>-<16 hex span id>-<2 hex trace flags>
+  private static final int TRACEPARENT_LENGTH = 55;
+  private static final int TRACE_ID_OFFSET = 3;
+  private static final int SPAN_ID_OFFSET = TRACE_ID_OFFSET + TraceId.getLength() + 1;
+  private static final int TRACE_FLAGS_OFFSET = SPAN_ID_OFFSET + SpanId.getLength() + 1;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  // the fields of the W3C trace context and baggage propagators
+  private static final Set<String> SUPPORTED_FIELDS =
+      new HashSet<>(asList(TRACEPARENT, TRACESTATE, "baggage"));
+
+  // the global propagator hardly ever changes, so the last wrapped one is remembered
+  @Nullable private static volatile KafkaTraceContextPropagator lastWrapped;
+
+  private final TextMapPropagator delegate;
+
+  private KafkaTraceContextPropagator(TextMapPropagator delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Returns a propagator that handles the {@code traceparent} header of Kafka records on its bytes
+   * when the given propagator propagates nothing but the W3C trace context and baggage, otherwise
+   * returns the given propagator.
+   */
+  public static TextMapPropagator wrap(TextMapPropagator propagator) {
+    KafkaTraceContextPropagator wrapped = lastWrapped;
+    if (wrapped != null && wrapped.delegate == propagator) {
+      return wrapped;
+    }
+    Collection<String> fields = propagator.fields();
+    if (!fields.contains(TRACEPARENT) || !SUPPORTED_FIELDS.containsAll(fields)) {
+      return propagator;
+    }
+    wrapped = new KafkaTraceContextPropagator(propagator);
+    lastWrapped = wrapped;
+    return wrapped;
+  }
+
+  @Override
+  public Collection<String> fields() {
+    return delegate.fields();
+  }
+
+  @Override
+  public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {
+    SpanContext spanContext = Span.fromContext(context).getSpanContext();
+    // a trace state is rare, leave its encoding to the wrapped propagator
+    if (!(carrier instanceof Headers)
+        || !(setter instanceof KafkaHeadersSetter)
+        || !spanContext.isValid()
+        || !spanContext.getTraceState().isEmpty()) {
+      delegate.inject(context, carrier, setter);
+      return;
+    }
+    ((KafkaHeadersSetter) setter).set((Headers) carrier, TRACEPARENT, toBytes(spanContext));
+    // without a valid span the wrapped propagator only injects the baggage
+    delegate.inject(context.with(Span.getInvalid()), carrier, setter);
+  }
+
+  @Override
+  public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+    Headers headers;
+    if (carrier instanceof KafkaProcessRequest) {
+      headers = ((KafkaProcessRequest) carrier).getRecord().headers();
+    } else if (carrier instanceof Headers) {
+      headers = (Headers) carrier;
+    } else {
+      return delegate.extract(context, carrier, getter);
+    }
+    Header traceparent = headers.lastHeader(TRACEPARENT);
+    if (traceparent == null || headers.lastHeader(TRACESTATE) != null) {
+      return delegate.extract(context, carrier, getter);
+    }
+    SpanContext spanContext = parse(traceparent.value());
+    if (spanContext == null) {
+      // another version of the header, leave it to the wrapped propagator
+      return delegate.extract(context, carrier, getter);
+    }
+    if (spanContext.isValid()) {
+      context = context.with(Span.wrap(spanContext));
+    }
+    return delegate.extract(context, carrier, new TraceparentHidingGetter<>(getter));
+  }
+
+  /**
+   * Parses a version {@code 00} {@code traceparent} header value. Returns {@code null} when the
+   * value is not a version {@code 00} header and an invalid span context when it is malformed.
+   */
+  @Nullable
+  static SpanContext parse(@Nullable byte[] traceparent) {
+    if (traceparent == null
+        || traceparent.length < 2
+        || traceparent[0] != '0'
+        || traceparent[1] != '0') {
+      return null;
+    }
+    if (traceparent.length != TRACEPARENT_LENGTH
+        || traceparent[TRACE_ID_OFFSET - 1] != '-'
+        || traceparent[SPAN_ID_OFFSET - 1] != '-'
+        || traceparent[TRACE_FLAGS_OFFSET - 1] != '-'
+        || !isHex(traceparent, TRACE_ID_OFFSET, TraceId.getLength())
+        || !isHex(traceparent, SPAN_ID_OFFSET, SpanId.getLength())
+        || !isHex(traceparent, TRACE_FLAGS_OFFSET, 2)) {
+      return SpanContext.getInvalid();
+    }
+    // the bytes are hex digits, latin 1 decodes them with a plain copy
+    String traceId =
+        new String(
+            traceparent, TRACE_ID_OFFSET, TraceId.getLength(), StandardCharsets.ISO_8859_1);
+    String spanId =
+        new String(traceparent, SPAN_ID_OFFSET, SpanId.getLength(), StandardCharsets.ISO_8859_1);
+    byte traceFlags =
+        (byte)
+            (Character.digit(traceparent[TRACE_FLAGS_OFFSET], 16) << 4
+                | Character.digit(traceparent[TRACE_FLAGS_OFFSET + 1], 16));
+    return SpanContext.createFromRemoteParent(
+        traceId, spanId, TraceFlags.fromByte(traceFlags), TraceState.getDefault());
+  }
+
+  private static byte[] toBytes(SpanContext spanContext) {
+    byte[] traceparent = new byte[TRACEPARENT_LENGTH];
+    traceparent[0] = '0';
+    traceparent[1] = '0';
+    traceparent[TRACE_ID_OFFSET - 1] = '-';
+    copyAscii(spanContext.getTraceId(), traceparent, TRACE_ID_OFFSET);
+    traceparent[SPAN_ID_OFFSET - 1] = '-';
+    copyAscii(spanContext.getSpanId(), traceparent, SPAN_ID_OFFSET);
+    traceparent[TRACE_FLAGS_OFFSET - 1] = '-';
+    byte traceFlags = spanContext.getTraceFlags().asByte();
+    traceparent[TRACE_FLAGS_OFFSET] = (byte) HEX_DIGITS[(traceFlags >> 4) & 0xF];
+    traceparent[TRACE_FLAGS_OFFSET + 1] = (byte) HEX_DIGITS[traceFlags & 0xF];
+    return traceparent;
+  }
+
+  // only lower case hex digits are valid, like in the W3C trace context propagator
+  private static boolean isHex(byte[] bytes, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      byte b = bytes[i];
+      if ((b < '0' || b > '9') && (b < 'a' || b > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void copyAscii(String value, byte[] destination, int offset) {
+    for (int i = 0; i < value.length(); i++) {
+      destination[offset + i] = (byte) value.charAt(i);
+    }
+  }
+
+  // keeps the wrapped propagator from parsing the traceparent header again
+  private static final class TraceparentHidingGetter<C> implements TextMapGetter<C> {
+    private final TextMapGetter<C> delegate;
+
+    TraceparentHidingGetter(TextMapGetter<C> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Iterable<String> keys(C carrier) {
+      return delegate.keys(carrier);
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable C carrier, String key) {
+      return TRACEPARENT.equals(key) ? null : delegate.get(carrier, key);
+    }
+  }
+}
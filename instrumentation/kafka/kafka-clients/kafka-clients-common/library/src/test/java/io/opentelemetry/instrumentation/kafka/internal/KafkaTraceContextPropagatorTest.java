@@ -0,0 +1,236 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.util.Collection;
+import javax.annotation.Nullable;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class KafkaTraceContextPropagatorTest {
+
+  private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+  private static final String SPAN_ID = "b7ad6b7169203331";
+
+  private static final TextMapPropagator w3cPropagator =
+      TextMapPropagator.composite(
+          W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance());
+  private static final TextMapPropagator propagator =
+      KafkaTraceContextPropagator.wrap(w3cPropagator);
+
+  @Test
+  void wrapsW3cTraceContextAndBaggage() {
+    assertThat(propagator).isInstanceOf(KafkaTraceContextPropagator.class);
+    assertThat(propagator.fields()).isEqualTo(w3cPropagator.fields());
+    assertThat(KafkaTraceContextPropagator.wrap(W3CTraceContextPropagator.getInstance()))
+        .isInstanceOf(KafkaTraceContextPropagator.class);
+  }
+
+  @Test
+  void doesNotWrapPropagatorsWithOtherFields() {
+    TextMapPropagator withB3 =
+        TextMapPropagator.composite(W3CTraceContextPropagator.getInstance(), new B3Fields());
+    assertThat(KafkaTraceContextPropagator.wrap(withB3)).isSameAs(withB3);
+
+    TextMapPropagator baggageOnly = W3CBaggagePropagator.getInstance();
+    assertThat(KafkaTraceContextPropagator.wrap(baggageOnly)).isSameAs(baggageOnly);
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {true, false})
+  void injectAndExtract(boolean sampled) {
+    TraceFlags traceFlags = sampled ? TraceFlags.getSampled() : TraceFlags.getDefault();
+    SpanContext spanContext =
+        SpanContext.create(TRACE_ID, SPAN_ID, traceFlags, TraceState.getDefault());
+    Headers headers = new RecordHeaders();
+
+    propagator.inject(
+        Context.root().with(Span.wrap(spanContext)), headers, KafkaHeadersSetter.INSTANCE);
+
+    assertThat(headerValue(headers, "traceparent"))
+        .isEqualTo("00-" + TRACE_ID + "-" + SPAN_ID + (sampled ? "-01" : "-00"));
+    assertThat(spanContext(propagator, headers))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID, SPAN_ID, traceFlags, TraceState.getDefault()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00",
+        // upper case hex
+        "00-0AF7651916CD43DD8448EB211C80319C-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-B7AD6B7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-0A",
+        // malformed
+        "00-0af7651916cd43dd8448eb211c80319x-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b716920333g-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-0z",
+        "00_0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c_b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331_01",
+        "00-00000000000000000000000000000000-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-0000000000000000-01",
+        // wrong length
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-1",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-00",
+        "00",
+        "0",
+        "",
+        // other versions
+        "01-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "01-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-future",
+        "ff-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+      })
+  void extractsLikeW3cPropagator(String traceparent) {
+    Headers headers = new RecordHeaders();
+    headers.add("traceparent", traceparent.getBytes(UTF_8));
+
+    assertThat(spanContext(propagator, headers)).isEqualTo(spanContext(w3cPropagator, headers));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00",
+        "00-0af7651916cd43dd8448eb211c80319x-b7ad6b7169203331-01",
+        "01-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01-future",
+      })
+  void extractsFromRecordHeaders(String traceparent) {
+    Headers headers = new RecordHeaders();
+    headers.add("traceparent", traceparent.getBytes(UTF_8));
+    headers.add("baggage", "key=value".getBytes(UTF_8));
+
+    Context context = KafkaPropagation.extractContext(propagator, Context.root(), record(headers));
+
+    assertThat(Span.fromContext(context).getSpanContext())
+        .isEqualTo(spanContext(w3cPropagator, headers));
+    assertThat(Baggage.fromContext(context).getEntryValue("key")).isEqualTo("value");
+  }
+
+  @Test
+  void extractsTraceStateWithWrappedPropagator() {
+    Headers headers = new RecordHeaders();
+    headers.add("traceparent", ("00-" + TRACE_ID + "-" + SPAN_ID + "-01").getBytes(UTF_8));
+    headers.add("tracestate", "foo=bar".getBytes(UTF_8));
+
+    SpanContext spanContext = spanContext(propagator, headers);
+
+    assertThat(spanContext.getTraceId()).isEqualTo(TRACE_ID);
+    assertThat(spanContext.getTraceState().get("foo")).isEqualTo("bar");
+    assertThat(spanContext).isEqualTo(spanContext(w3cPropagator, headers));
+  }
+
+  @Test
+  void injectsTraceStateWithWrappedPropagator() {
+    SpanContext spanContext =
+        SpanContext.create(
+            TRACE_ID,
+            SPAN_ID,
+            TraceFlags.getSampled(),
+            TraceState.builder().put("foo", "bar").build());
+    Headers headers = new RecordHeaders();
+
+    propagator.inject(
+        Context.root().with(Span.wrap(spanContext)), headers, KafkaHeadersSetter.INSTANCE);
+
+    assertThat(headerValue(headers, "traceparent"))
+        .isEqualTo("00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+    assertThat(headerValue(headers, "tracestate")).isEqualTo("foo=bar");
+  }
+
+  @Test
+  void extractsBaggage() {
+    Headers headers = new RecordHeaders();
+    headers.add("traceparent", ("00-" + TRACE_ID + "-" + SPAN_ID + "-01").getBytes(UTF_8));
+    headers.add("baggage", "key=value".getBytes(UTF_8));
+
+    Context context = extract(propagator, headers);
+
+    assertThat(Span.fromContext(context).getSpanContext().getTraceId()).isEqualTo(TRACE_ID);
+    assertThat(Baggage.fromContext(context).getEntryValue("key")).isEqualTo("value");
+  }
+
+  @Test
+  void injectsBaggage() {
+    SpanContext spanContext =
+        SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault());
+    Context context =
+        Context.root()
+            .with(Span.wrap(spanContext))
+            .with(Baggage.builder().put("key", "value").build());
+    Headers headers = new RecordHeaders();
+
+    propagator.inject(context, headers, KafkaHeadersSetter.INSTANCE);
+
+    assertThat(headerValue(headers, "traceparent"))
+        .isEqualTo("00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+    assertThat(headerValue(headers, "baggage")).isEqualTo("key=value");
+    assertThat(headers.headers("traceparent")).hasSize(1);
+  }
+
+  private static SpanContext spanContext(TextMapPropagator propagator, Headers headers) {
+    return Span.fromContext(extract(propagator, headers)).getSpanContext();
+  }
+
+  private static Context extract(TextMapPropagator propagator, Headers headers) {
+    return propagator.extract(
+        Context.root(),
+        KafkaProcessRequest.create(record(headers), null, null),
+        KafkaConsumerRecordGetter.INSTANCE);
+  }
+
+  private static ConsumerRecord<String, String> record(Headers headers) {
+    return new ConsumerRecord<>(
+        "topic", 0, 0, 0, TimestampType.CREATE_TIME, 0L, 0, 0, "key", "value", headers);
+  }
+
+  @Nullable
+  private static String headerValue(Headers headers, String key) {
+    Header header = headers.lastHeader(key);
+    return header != null ? new String(header.value(), UTF_8) : null;
+  }
+
+  private static class B3Fields implements TextMapPropagator {
+    @Override
+    public Collection<String> fields() {
+      return singletonList("b3");
+    }
+
+    @Override
+    public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {}
+
+    @Override
+    public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+      return context;
+    }
+  }
+}
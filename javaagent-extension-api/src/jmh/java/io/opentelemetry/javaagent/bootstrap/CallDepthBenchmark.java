@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Simulates the enter and exit advice of a nested instrumentation, which look up the call depth of
+ * the same class twice per call. {@link #threadLocalPerClass()} looks it up like {@code
+ * CallDepthThreadLocalMap} used to, with a separate {@link ThreadLocal} per class.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@Threads(4)
+public class CallDepthBenchmark {
+
+  private static final ClassValue<ThreadLocal<CallDepth>> THREAD_LOCALS =
+      new ClassValue<ThreadLocal<CallDepth>>() {
+        @Override
+        protected ThreadLocal<CallDepth> computeValue(Class<?> type) {
+          return ThreadLocal.withInitial(CallDepth::new);
+        }
+      };
+
+  @Benchmark
+  public int callDepth() {
+    int outer = CallDepth.forClass(CallDepthBenchmark.class).getAndIncrement();
+    int nested = CallDepth.forClass(CallDepthBenchmark.class).getAndIncrement();
+    CallDepth.forClass(CallDepthBenchmark.class).decrementAndGet();
+    return outer + nested + CallDepth.forClass(CallDepthBenchmark.class).decrementAndGet();
+  }
+
+  @Benchmark
+  public int threadLocalPerClass() {
+    int outer = THREAD_LOCALS.get(CallDepthBenchmark.class).get().getAndIncrement();
+    int nested = THREAD_LOCALS.get(CallDepthBenchmark.class).get().getAndIncrement();
+    THREAD_LOCALS.get(CallDepthBenchmark.class).get().decrementAndGet();
+    return outer + nested + THREAD_LOCALS.get(CallDepthBenchmark.class).get().decrementAndGet();
+  }
+}
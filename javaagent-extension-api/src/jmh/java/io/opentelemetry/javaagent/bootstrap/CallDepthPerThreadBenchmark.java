@@ -0,0 +1,116 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts a short-lived thread that passes through {@link #classCount} instrumentations, to compare
+ * the memory that the call depths add to every thread. Run it with {@code -prof gc}: the
+ * difference in {@code gc.alloc.rate.norm} between {@link #callDepth()} and {@link
+ * #threadLocalPerClass()} is the per thread overhead of a {@link ThreadLocal} per class. Virtual
+ * threads are used when the JVM supports them, platform threads otherwise.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class CallDepthPerThreadBenchmark {
+
+  private static final Class<?>[] CLASSES = {
+    Object.class,
+    String.class,
+    Integer.class,
+    Long.class,
+    Short.class,
+    Byte.class,
+    Double.class,
+    Float.class,
+    Character.class,
+    Boolean.class
+  };
+
+  private static final ClassValue<ThreadLocal<CallDepth>> THREAD_LOCALS =
+      new ClassValue<ThreadLocal<CallDepth>>() {
+        @Override
+        protected ThreadLocal<CallDepth> computeValue(Class<?> type) {
+          return ThreadLocal.withInitial(CallDepth::new);
+        }
+      };
+
+  @Param({"1", "10"})
+  int classCount;
+
+  private Function<Runnable, Thread> threadFactory;
+
+  @Setup
+  public void setUp() {
+    threadFactory = virtualThreadFactory();
+  }
+
+  @Benchmark
+  public void callDepth() throws InterruptedException {
+    run(
+        () -> {
+          for (int i = 0; i < classCount; i++) {
+            CallDepth callDepth = CallDepth.forClass(CLASSES[i]);
+            callDepth.getAndIncrement();
+            callDepth.decrementAndGet();
+          }
+        });
+  }
+
+  @Benchmark
+  public void threadLocalPerClass() throws InterruptedException {
+    run(
+        () -> {
+          for (int i = 0; i < classCount; i++) {
+            CallDepth callDepth = THREAD_LOCALS.get(CLASSES[i]).get();
+            callDepth.getAndIncrement();
+            callDepth.decrementAndGet();
+          }
+        });
+  }
+
+  private void run(Runnable runnable) throws InterruptedException {
+    Thread thread = threadFactory.apply(runnable);
+    thread.start();
+    thread.join();
+  }
+
+  private static Function<Runnable, Thread> virtualThreadFactory() {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method unstarted =
+          Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+      return runnable -> {
+        try {
+          return (Thread) unstarted.invoke(builder, runnable);
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException(e);
+        }
+      };
+    } catch (ReflectiveOperationException e) {
+      // virtual threads need Java 21
+      return Thread::new;
+    }
+  }
+}
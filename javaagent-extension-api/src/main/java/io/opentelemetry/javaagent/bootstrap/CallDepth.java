@@ -38,6 +38,29 @@ public final class CallDepth {
     return CallDepthThreadLocalMap.getCallDepth(cls);
   }
 
+  /**
+   * Return the current call depth for the class that was assigned the given id by {@link
+   * #getId(String)}. The agent rewrites {@code CallDepth.forClass(SomeClass.class)} calls in advice
+   * code to call this method instead.
+   *
+   * <p>This method is internal and is hence not for public use. Its APIs are unstable and can
+   * change at any time.
+   */
+  public static CallDepth forId(int id) {
+    return CallDepthThreadLocalMap.getCallDepth(id);
+  }
+
+  /**
+   * Return the id of the call depth of the class with the given name, or {@code -1} when the class
+   * has no id and {@link #forClass(Class)} has to be used.
+   *
+   * <p>This method is internal and is hence not for public use. Its APIs are unstable and can
+   * change at any time.
+   */
+  public static int getId(String className) {
+    return CallDepthThreadLocalMap.getId(className);
+  }
+
   /**
    * Increment the current call depth and return the previous value. This method will always return
    * 0 if it's the first (outermost) call.
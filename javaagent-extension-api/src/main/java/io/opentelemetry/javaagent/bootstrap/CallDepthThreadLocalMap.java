@@ -5,18 +5,108 @@
 
 package io.opentelemetry.javaagent.bootstrap;
 
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * Stores the {@link CallDepth} instances of a thread in a single array indexed by an id that is
+ * assigned to every class name passed to {@link CallDepth#forClass(Class)}. Using a separate {@link
+ * ThreadLocal} per class adds an entry to the thread local map of every thread for every
+ * instrumentation that it passes through, which adds up with large numbers of short-lived (e.g.
+ * virtual) threads.
+ *
+ * <p>The agent assigns the ids of the class literals passed to {@link CallDepth#forClass(Class)}
+ * in advice code when it installs the advice, and rewrites these calls to {@link
+ * CallDepth#forId(int)}, so that they only read the thread local and index the array. The ids are
+ * assigned per class name so that the rewritten calls and the calls that pass a class at runtime
+ * share the same call depth.
+ *
+ * <p>Some instrumentations pass classes that are only known at runtime, so the number of ids is
+ * capped to keep the arrays small; classes that come after the cap fall back to a {@link
+ * ThreadLocal} of their own.
+ */
 final class CallDepthThreadLocalMap {
 
-  private static final ClassValue<ThreadLocalDepth> TLS =
-      new ClassValue<ThreadLocalDepth>() {
+  // visible for testing
+  static final int MAX_INDEXED_CLASSES = 256;
+
+  private static final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+  private static final ClassValue<Key> KEYS =
+      new ClassValue<Key>() {
+        @Override
+        protected Key computeValue(Class<?> type) {
+          int id = getId(type.getName());
+          return id >= 0 ? new Key(id, null) : new Key(-1, new ThreadLocalDepth());
+        }
+      };
+
+  private static final CallDepth[] EMPTY = new CallDepth[0];
+
+  private static final ThreadLocal<CallDepth[]> TLS =
+      new ThreadLocal<CallDepth[]>() {
         @Override
-        protected ThreadLocalDepth computeValue(Class<?> type) {
-          return new ThreadLocalDepth();
+        protected CallDepth[] initialValue() {
+          return EMPTY;
         }
       };
 
+  /**
+   * Returns the id of the given class name, or {@code -1} when all ids are taken. Once a class name
+   * has an id it keeps it, and once all ids are taken no class name gets one.
+   */
+  static int getId(String className) {
+    Integer id = ids.get(className);
+    if (id != null) {
+      return id;
+    }
+    synchronized (ids) {
+      id = ids.get(className);
+      if (id == null) {
+        if (ids.size() >= MAX_INDEXED_CLASSES) {
+          return -1;
+        }
+        id = ids.size();
+        ids.put(className, id);
+      }
+      return id;
+    }
+  }
+
   static CallDepth getCallDepth(Class<?> k) {
-    return TLS.get(k).get();
+    Key key = KEYS.get(k);
+    if (key.threadLocal != null) {
+      return key.threadLocal.get();
+    }
+    return getCallDepth(key.id);
+  }
+
+  static CallDepth getCallDepth(int id) {
+    CallDepth[] callDepths = TLS.get();
+    if (id >= callDepths.length) {
+      // ids are only assigned to the classes that are actually used, so sizing the array to all of
+      // them keeps it small while avoiding a copy for every newly used class
+      callDepths = Arrays.copyOf(callDepths, Math.max(id + 1, ids.size()));
+      TLS.set(callDepths);
+    }
+    CallDepth callDepth = callDepths[id];
+    if (callDepth == null) {
+      callDepth = new CallDepth();
+      callDepths[id] = callDepth;
+    }
+    return callDepth;
+  }
+
+  private static final class Key {
+    final int id;
+    @Nullable final ThreadLocalDepth threadLocal;
+
+    Key(int id, @Nullable ThreadLocalDepth threadLocal) {
+      this.id = id;
+      this.threadLocal = threadLocal;
+    }
   }
 
   private static final class ThreadLocalDepth extends ThreadLocal<CallDepth> {
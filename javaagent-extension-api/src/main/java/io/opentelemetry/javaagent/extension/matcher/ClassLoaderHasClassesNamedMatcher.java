@@ -9,8 +9,8 @@ import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderMatcherCacheHolder;
 import io.opentelemetry.javaagent.bootstrap.internal.InClassLoaderMatcher;
 import java.util.BitSet;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -20,20 +20,18 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
   // caching is disabled for build time muzzle checks
   // this field is set via reflection from ClassLoaderMatcher
   static boolean useCache = true;
-  private static final AtomicInteger counter = new AtomicInteger();
 
   private final String[] resources;
-  // each matcher gets a unique index that is used for caching the matching status
-  private final int index = counter.getAndIncrement();
+  // ids of the resources that are used for caching their presence, shared with all other matchers
+  // that look for the same resources
+  private final int[] resourceIds;
 
   ClassLoaderHasClassesNamedMatcher(String... classNames) {
     resources = classNames;
     for (int i = 0; i < resources.length; i++) {
       resources[i] = resources[i].replace(".", "/") + ".class";
     }
-    if (useCache) {
-      Manager.INSTANCE.add(this);
-    }
+    resourceIds = useCache ? Manager.INSTANCE.add(resources) : new int[0];
   }
 
   @Override
@@ -63,60 +61,95 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
     return true;
   }
 
+  /**
+   * Caches the presence of the resources that the matchers look for. Many instrumentation modules
+   * look for the same classes (e.g. the servlet api), every resource is only looked up once per
+   * class loader no matter how many matchers use it.
+   */
   private static class Manager {
     static final Manager INSTANCE = new Manager();
-    private final List<ClassLoaderHasClassesNamedMatcher> matchers = new CopyOnWriteArrayList<>();
-    // each matcher gets a two bits in BitSet, that first bit indicates whether current matcher has
-    // been run for given class loader and the second whether it matched or not
+    private final Map<String, Integer> resourceIds = new ConcurrentHashMap<>();
+    private final AtomicInteger resourceCounter = new AtomicInteger();
+    // each resource gets two bits in BitSet, that first bit indicates whether the resource has been
+    // looked up in given class loader and the second whether it was found or not
     private final Cache<ClassLoader, BitSet> enabled = Cache.weak();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final Lock readLock = lock.readLock();
     private final Lock writeLock = lock.writeLock();
-    private volatile boolean matchCalled = false;
 
     Manager() {
       ClassLoaderMatcherCacheHolder.addCache(enabled);
     }
 
-    void add(ClassLoaderHasClassesNamedMatcher matcher) {
-      if (matchCalled) {
-        throw new IllegalStateException("All matchers should be create before match is called");
+    // matchers can also be created after matching has started, e.g. when instrumentation modules
+    // are installed lazily, the bit sets grow when the bits of new resources are set
+    int[] add(String[] resources) {
+      int[] ids = new int[resources.length];
+      for (int i = 0; i < resources.length; i++) {
+        ids[i] =
+            resourceIds.computeIfAbsent(
+                resources[i], (unused) -> resourceCounter.getAndIncrement());
       }
-      matchers.add(matcher);
+      return ids;
     }
 
     boolean match(ClassLoaderHasClassesNamedMatcher matcher, ClassLoader cl) {
-      matchCalled = true;
-      BitSet set = enabled.computeIfAbsent(cl, (unused) -> new BitSet(counter.get() * 2));
-      int matcherRunBit = 2 * matcher.index;
-      int matchedBit = matcherRunBit + 1;
+      BitSet set =
+          enabled.computeIfAbsent(cl, (unused) -> new BitSet(resourceCounter.get() * 2));
+      int[] ids = matcher.resourceIds;
+
       readLock.lock();
       try {
-        if (!set.get(matcherRunBit)) {
-          // read lock needs to be released before upgrading to write lock
-          readLock.unlock();
-          // we do the resource presence check outside the lock to keep the time we need to hold
-          // the write lock minimal
-          boolean matches = hasResources(cl, matcher.resources);
-          writeLock.lock();
-          try {
-            if (!set.get(matcherRunBit)) {
-              if (matches) {
-                set.set(matchedBit);
-              }
-              set.set(matcherRunBit);
-            }
-          } finally {
-            // downgrading the write lock to the read lock
-            readLock.lock();
-            writeLock.unlock();
+        boolean allLookedUp = true;
+        for (int id : ids) {
+          if (!set.get(2 * id)) {
+            allLookedUp = false;
+          } else if (!set.get(2 * id + 1)) {
+            return false;
           }
         }
+        if (allLookedUp) {
+          return true;
+        }
+      } finally {
+        readLock.unlock();
+      }
 
-        return set.get(matchedBit);
+      for (int i = 0; i < ids.length; i++) {
+        if (!hasResource(set, cl, matcher.resources[i], ids[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean hasResource(BitSet set, ClassLoader cl, String resource, int id) {
+      int lookedUpBit = 2 * id;
+      int foundBit = lookedUpBit + 1;
+      readLock.lock();
+      try {
+        if (set.get(lookedUpBit)) {
+          return set.get(foundBit);
+        }
       } finally {
         readLock.unlock();
       }
+
+      // we do the resource presence check outside the lock to keep the time we need to hold the
+      // write lock minimal
+      boolean found = hasResources(cl, resource);
+      writeLock.lock();
+      try {
+        if (!set.get(lookedUpBit)) {
+          if (found) {
+            set.set(foundBit);
+          }
+          set.set(lookedUpBit);
+        }
+        return set.get(foundBit);
+      } finally {
+        writeLock.unlock();
+      }
     }
   }
 }
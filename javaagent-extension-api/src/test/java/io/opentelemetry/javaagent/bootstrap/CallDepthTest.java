@@ -7,8 +7,14 @@ package io.opentelemetry.javaagent.bootstrap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.ByteBuddy;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
 
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class CallDepthTest {
 
   @Test
@@ -28,4 +34,49 @@ class CallDepthTest {
     assertThat(CallDepth.forClass(Double.class).getAndIncrement()).isZero();
     assertThat(CallDepth.forClass(Double.class).decrementAndGet()).isZero();
   }
+
+  @Test
+  void separateDepthPerThread() throws Exception {
+    assertThat(CallDepth.forClass(Long.class).getAndIncrement()).isZero();
+
+    AtomicInteger otherThreadDepth = new AtomicInteger(-1);
+    Thread thread =
+        new Thread(() -> otherThreadDepth.set(CallDepth.forClass(Long.class).getAndIncrement()));
+    thread.start();
+    thread.join();
+
+    assertThat(otherThreadDepth).hasValue(0);
+    assertThat(CallDepth.forClass(Long.class).decrementAndGet()).isZero();
+  }
+
+  @Test
+  void idsShareCallDepthsWithClasses() {
+    int id = CallDepth.getId(Short.class.getName());
+    assertThat(id).isNotNegative();
+    assertThat(CallDepth.getId(Short.class.getName())).isEqualTo(id);
+
+    assertThat(CallDepth.forId(id)).isSameAs(CallDepth.forClass(Short.class));
+    assertThat(CallDepth.forId(id).getAndIncrement()).isZero();
+    assertThat(CallDepth.forClass(Short.class).decrementAndGet()).isZero();
+  }
+
+  @Order(Integer.MAX_VALUE) // uses up all ids
+  @Test
+  void moreClassesThanIndexed() {
+    for (int i = 0; i <= CallDepthThreadLocalMap.MAX_INDEXED_CLASSES; i++) {
+      Class<?> type =
+          new ByteBuddy()
+              .subclass(Object.class)
+              .make()
+              .load(CallDepthTest.class.getClassLoader())
+              .getLoaded();
+
+      assertThat(CallDepth.forClass(type).getAndIncrement()).isZero();
+      assertThat(CallDepth.forClass(type).getAndIncrement()).isOne();
+      assertThat(CallDepth.forClass(type).decrementAndGet()).isOne();
+      assertThat(CallDepth.forClass(type).decrementAndGet()).isZero();
+    }
+
+    assertThat(CallDepth.getId("com.example.NotIndexed")).isEqualTo(-1);
+  }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.extension.matcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class ClassLoaderHasClassesNamedMatcherTest {
+
+  private static final ElementMatcher<ClassLoader> servlet =
+      AgentElementMatchers.hasClassesNamed("javax.servlet.Filter");
+  private static final ElementMatcher<ClassLoader> servletAndJsp =
+      AgentElementMatchers.hasClassesNamed("javax.servlet.Filter", "javax.servlet.jsp.JspPage");
+  private static final ElementMatcher<ClassLoader> jspAndServlet =
+      AgentElementMatchers.hasClassesNamed("javax.servlet.jsp.JspPage", "javax.servlet.Filter");
+  private static final ElementMatcher<ClassLoader> jsp =
+      AgentElementMatchers.hasClassesNamed("javax.servlet.jsp.JspPage");
+
+  @Test
+  void lookUpSharedResourcesOnce() {
+    ResourceCountingClassLoader classLoader =
+        new ResourceCountingClassLoader("javax/servlet/Filter.class");
+
+    assertThat(servlet.matches(classLoader)).isTrue();
+    assertThat(servletAndJsp.matches(classLoader)).isFalse();
+    assertThat(jspAndServlet.matches(classLoader)).isFalse();
+    assertThat(jsp.matches(classLoader)).isFalse();
+
+    assertThat(classLoader.lookups)
+        .containsExactly("javax/servlet/Filter.class", "javax/servlet/jsp/JspPage.class");
+  }
+
+  @Test
+  void separateResultsPerClassLoader() {
+    ResourceCountingClassLoader withJsp =
+        new ResourceCountingClassLoader(
+            "javax/servlet/Filter.class", "javax/servlet/jsp/JspPage.class");
+    ResourceCountingClassLoader withoutJsp =
+        new ResourceCountingClassLoader("javax/servlet/Filter.class");
+
+    assertThat(servletAndJsp.matches(withJsp)).isTrue();
+    assertThat(servletAndJsp.matches(withoutJsp)).isFalse();
+    assertThat(jsp.matches(withJsp)).isTrue();
+    assertThat(jsp.matches(withoutJsp)).isFalse();
+
+    assertThat(withJsp.lookups).hasSize(2);
+    assertThat(withoutJsp.lookups).hasSize(2);
+  }
+
+  @Test
+  void createMatchersAfterMatchingStarted() {
+    ResourceCountingClassLoader classLoader =
+        new ResourceCountingClassLoader(
+            "javax/servlet/Filter.class", "com/example/Late0.class", "com/example/Late99.class");
+    assertThat(servlet.matches(classLoader)).isTrue();
+
+    // enough new resources to outgrow the bit set that was allocated for the class loader
+    String[] lateClassNames = new String[100];
+    for (int i = 0; i < lateClassNames.length; i++) {
+      lateClassNames[i] = "com.example.Late" + i;
+    }
+    ElementMatcher<ClassLoader> late = AgentElementMatchers.hasClassesNamed(lateClassNames);
+    ElementMatcher<ClassLoader> lateAndServlet =
+        AgentElementMatchers.hasClassesNamed(
+            "com.example.Late0", "com.example.Late99", "javax.servlet.Filter");
+
+    assertThat(late.matches(classLoader)).isFalse();
+    assertThat(lateAndServlet.matches(classLoader)).isTrue();
+    assertThat(lateAndServlet.matches(classLoader)).isTrue();
+
+    // the resources shared with the earlier matchers are looked up only once
+    assertThat(classLoader.lookups)
+        .containsExactly(
+            "javax/servlet/Filter.class",
+            "com/example/Late0.class",
+            "com/example/Late1.class",
+            "com/example/Late99.class");
+  }
+
+  private static class ResourceCountingClassLoader extends ClassLoader {
+    private final List<String> resources;
+    final List<String> lookups = new ArrayList<>();
+
+    ResourceCountingClassLoader(String... resources) {
+      super(null);
+      this.resources = Arrays.asList(resources);
+    }
+
+    @Override
+    public URL getResource(String name) {
+      lookups.add(name);
+      if (!resources.contains(name)) {
+        return null;
+      }
+      try {
+        return new URL("file:/" + name);
+      } catch (MalformedURLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
@@ -93,13 +93,6 @@ tasks {
     jvmArgs("-XX:+IgnoreUnrecognizedVMOptions")
   }
 
-  // TODO this should live in jmh-conventions
-  named<JavaCompile>("jmhCompileGeneratedClasses") {
-    options.errorprone {
-      isEnabled.set(false)
-    }
-  }
-
   check {
     dependsOn(testing.suites)
   }
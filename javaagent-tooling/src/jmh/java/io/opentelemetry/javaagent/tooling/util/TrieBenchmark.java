@@ -0,0 +1,90 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.util;
+
+import io.opentelemetry.javaagent.tooling.EmptyConfigProperties;
+import io.opentelemetry.javaagent.tooling.ignore.AdditionalLibraryIgnoredTypesConfigurer;
+import io.opentelemetry.javaagent.tooling.ignore.GlobalIgnoredTypesConfigurer;
+import io.opentelemetry.javaagent.tooling.ignore.IgnoreAllow;
+import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesBuilderImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up the class names that are typically loaded by a web application in the ignored types and
+ * ignored tasks tries that the agent builds from its default configuration.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class TrieBenchmark {
+
+  private static final String[] CLASS_NAMES = {
+    "java.lang.String",
+    "java.util.concurrent.ThreadPoolExecutor$Worker",
+    "java.util.concurrent.CompletableFuture$AsyncSupply",
+    "sun.reflect.GeneratedMethodAccessor12",
+    "jdk.internal.loader.ClassLoaders$AppClassLoader",
+    "org.springframework.boot.SpringApplication",
+    "org.springframework.web.servlet.DispatcherServlet",
+    "org.springframework.beans.factory.support.DefaultListableBeanFactory",
+    "org.apache.catalina.core.StandardWrapperValve",
+    "org.apache.tomcat.util.net.NioEndpoint$SocketProcessor",
+    "org.hibernate.internal.SessionImpl",
+    "com.fasterxml.jackson.databind.ObjectMapper",
+    "io.netty.channel.nio.NioEventLoop",
+    "ch.qos.logback.classic.Logger",
+    "org.slf4j.LoggerFactory",
+    "com.zaxxer.hikari.pool.HikariPool",
+    "com.example.petclinic.owner.OwnerController",
+    "com.example.petclinic.vet.VetRepository$$SpringCGLIB$$0",
+  };
+
+  private final Trie<IgnoreAllow> ignoredTypes;
+  private final Trie<Boolean> ignoredTasks;
+
+  public TrieBenchmark() {
+    IgnoredTypesBuilderImpl builder = new IgnoredTypesBuilderImpl();
+    new GlobalIgnoredTypesConfigurer().configure(builder, EmptyConfigProperties.INSTANCE);
+    new AdditionalLibraryIgnoredTypesConfigurer()
+        .configure(builder, EmptyConfigProperties.INSTANCE);
+    ignoredTypes = builder.buildIgnoredTypesTrie();
+    ignoredTasks = builder.buildIgnoredTasksTrie();
+  }
+
+  @Benchmark
+  public int ignoredTypes() {
+    int matched = 0;
+    for (String className : CLASS_NAMES) {
+      if (ignoredTypes.getOrNull(className) == IgnoreAllow.IGNORE) {
+        matched++;
+      }
+    }
+    return matched;
+  }
+
+  @Benchmark
+  public int ignoredTasks() {
+    int matched = 0;
+    for (String className : CLASS_NAMES) {
+      if (ignoredTasks.contains(className)) {
+        matched++;
+      }
+    }
+    return matched;
+  }
+}
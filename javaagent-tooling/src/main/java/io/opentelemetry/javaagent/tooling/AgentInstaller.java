@@ -14,6 +14,7 @@ import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.SEVERE;
 import static net.bytebuddy.matcher.ElementMatchers.any;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextStorage;
 import io.opentelemetry.context.Scope;
@@ -35,14 +36,23 @@ import io.opentelemetry.javaagent.tooling.bootstrap.BootstrapPackagesConfigurer;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.javaagent.tooling.config.ConfigPropertiesBridge;
 import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig;
+import io.opentelemetry.javaagent.tooling.ignore.ClassPathPrescanner;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredClassLoadersMatcher;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesBuilderImpl;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesMatcher;
+import io.opentelemetry.javaagent.tooling.instrumentation.InstrumentationLoader;
+import io.opentelemetry.javaagent.tooling.instrumentation.LazyModuleActivator;
+import io.opentelemetry.javaagent.tooling.instrumentation.MuzzleResultCache;
+import io.opentelemetry.javaagent.tooling.instrumentation.StartupProfiler;
 import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling;
+import io.opentelemetry.javaagent.tooling.muzzle.PersistentTypeCache;
 import io.opentelemetry.javaagent.tooling.util.Trie;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
 import java.lang.instrument.Instrumentation;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -78,6 +88,34 @@ public class AgentInstaller {
   private static final String FORCE_SYNCHRONOUS_AGENT_LISTENERS_CONFIG =
       "otel.javaagent.experimental.force-synchronous-agent-listeners";
 
+  // directory where the super class, interfaces and modifiers of the classes matched at startup are
+  // stored, so that they don't need to be parsed again the next time the application starts
+  private static final String TYPE_CACHE_DIRECTORY_CONFIG =
+      "otel.javaagent.experimental.type-cache.directory";
+
+  // matches the classes on the class path against all type matchers in the background, so that
+  // classes which need no instrumentation are ignored right away when they are loaded
+  private static final String PRESCAN_ENABLED_CONFIG =
+      "otel.javaagent.experimental.prescan.enabled";
+
+  // shares the muzzle results between class loaders that load classes from identical jars, e.g.
+  // multiple deployments of the same webapp
+  private static final String MUZZLE_CACHE_ENABLED_CONFIG =
+      "otel.javaagent.experimental.muzzle-cache.enabled";
+
+  // reports the time spent in every instrumentation module during the given time after startup
+  private static final String STARTUP_PROFILER_ENABLED_CONFIG =
+      "otel.javaagent.experimental.startup-profiler.enabled";
+  private static final String STARTUP_PROFILER_DURATION_CONFIG =
+      "otel.javaagent.experimental.startup-profiler.duration";
+  private static final String STARTUP_PROFILER_REPORT_CONFIG =
+      "otel.javaagent.experimental.startup-profiler.report";
+
+  // installs the instrumentation modules that only apply to some class loaders when the first
+  // matching class loader is seen
+  private static final String LAZY_MODULES_ENABLED_CONFIG =
+      "otel.javaagent.experimental.lazy-modules.enabled";
+
   private static final String STRICT_CONTEXT_STRESSOR_MILLIS =
       "otel.javaagent.testing.strict-context-stressor-millis";
 
@@ -124,6 +162,8 @@ public class AgentInstaller {
     copyNecessaryConfigToSystemProperties(sdkConfig);
 
     setBootstrapPackages(sdkConfig, extensionClassLoader);
+    setupPersistentTypeCache(sdkConfig);
+    setupMuzzleResultCache(sdkConfig);
 
     for (BeforeAgentListener agentListener :
         loadOrdered(BeforeAgentListener.class, extensionClassLoader)) {
@@ -151,7 +191,11 @@ public class AgentInstaller {
       agentBuilder = agentBuilder.with(new ExposeAgentBootstrapListener(inst));
     }
 
+    List<AgentExtension> agentExtensions = loadOrdered(AgentExtension.class, extensionClassLoader);
+    setupClassPathPrescan(sdkConfig, agentExtensions);
+
     agentBuilder = configureIgnoredTypes(sdkConfig, extensionClassLoader, agentBuilder);
+    agentBuilder = setupStartupProfiler(sdkConfig, agentBuilder);
 
     if (AgentConfig.isDebugModeEnabled(sdkConfig)) {
       agentBuilder =
@@ -161,9 +205,10 @@ public class AgentInstaller {
               .with(new RedefinitionLoggingListener())
               .with(new TransformLoggingListener());
     }
+    setupLazyModules(sdkConfig, inst, agentBuilder);
 
     int numberOfLoadedExtensions = 0;
-    for (AgentExtension agentExtension : loadOrdered(AgentExtension.class, extensionClassLoader)) {
+    for (AgentExtension agentExtension : agentExtensions) {
       if (logger.isLoggable(FINE)) {
         logger.log(
             FINE,
@@ -189,6 +234,7 @@ public class AgentInstaller {
     agentBuilder = AgentBuilderUtil.optimize(agentBuilder);
     ResettableClassFileTransformer resettableClassFileTransformer = agentBuilder.installOn(inst);
     ClassFileTransformerHolder.setClassFileTransformer(resettableClassFileTransformer);
+    ClassPathPrescanner.start();
 
     addHttpServerResponseCustomizers(extensionClassLoader);
 
@@ -226,6 +272,66 @@ public class AgentInstaller {
     BootstrapPackagePrefixesHolder.setBoostrapPackagePrefixes(builder.build());
   }
 
+  private static void setupPersistentTypeCache(ConfigProperties config) {
+    String directory = config.getString(TYPE_CACHE_DIRECTORY_CONFIG);
+    if (directory == null || directory.isEmpty()) {
+      return;
+    }
+    PersistentTypeCache typeCache =
+        new PersistentTypeCache(Paths.get(directory), String.valueOf(AgentVersion.VERSION));
+    AgentTooling.setPersistentTypeCache(typeCache);
+    Runtime.getRuntime().addShutdownHook(new Thread(typeCache::save, "otel-type-cache-writer"));
+  }
+
+  private static void setupMuzzleResultCache(ConfigProperties config) {
+    if (config.getBoolean(MUZZLE_CACHE_ENABLED_CONFIG, false)) {
+      MuzzleResultCache.enable(GlobalOpenTelemetry.get().getMeter("io.opentelemetry.javaagent"));
+    }
+  }
+
+  private static void setupClassPathPrescan(
+      ConfigProperties config, List<AgentExtension> agentExtensions) {
+    if (!config.getBoolean(PRESCAN_ENABLED_CONFIG, false)) {
+      return;
+    }
+    // the type matchers of lazily installed modules aren't known when the pre-scan runs
+    if (config.getBoolean(LAZY_MODULES_ENABLED_CONFIG, false)) {
+      logger.log(FINE, "Class path pre-scan is disabled because of lazy module installation");
+      return;
+    }
+    // only the type matchers of instrumentation modules are registered with the pre-scan, other
+    // extensions could match classes that the pre-scan would ignore
+    for (AgentExtension agentExtension : agentExtensions) {
+      if (!(agentExtension instanceof InstrumentationLoader)) {
+        logger.log(
+            FINE,
+            "Class path pre-scan is disabled because of extension {0}",
+            agentExtension.extensionName());
+        return;
+      }
+    }
+    ClassPathPrescanner.enable();
+  }
+
+  private static void setupLazyModules(
+      ConfigProperties config, Instrumentation inst, AgentBuilder agentBuilder) {
+    if (config.getBoolean(LAZY_MODULES_ENABLED_CONFIG, false)) {
+      LazyModuleActivator.enable(agentBuilder, inst, config);
+    }
+  }
+
+  private static AgentBuilder setupStartupProfiler(
+      ConfigProperties config, AgentBuilder agentBuilder) {
+    if (!config.getBoolean(STARTUP_PROFILER_ENABLED_CONFIG, false)) {
+      return agentBuilder;
+    }
+    Duration duration =
+        config.getDuration(STARTUP_PROFILER_DURATION_CONFIG, Duration.ofSeconds(60));
+    String report = config.getString(STARTUP_PROFILER_REPORT_CONFIG);
+    Path reportPath = report == null || report.isEmpty() ? null : Paths.get(report);
+    return agentBuilder.with(StartupProfiler.start(duration, reportPath));
+  }
+
   private static void setDefineClassHandler() {
     DefineClassHelper.internalSetHandler(DefineClassHandler.INSTANCE);
   }
@@ -241,13 +347,18 @@ public class AgentInstaller {
     Trie<Boolean> ignoredTasksTrie = builder.buildIgnoredTasksTrie();
     InstrumentedTaskClasses.setIgnoredTaskClassesPredicate(ignoredTasksTrie::contains);
 
-    return agentBuilder
-        .ignore(any(), new IgnoredClassLoadersMatcher(builder.buildIgnoredClassLoadersTrie()))
-        .or(new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie()))
-        .or(
-            (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
-              return HelperInjector.isInjectedClass(classLoader, typeDescription.getName());
-            });
+    AgentBuilder.Ignored ignored =
+        agentBuilder
+            .ignore(any(), new IgnoredClassLoadersMatcher(builder.buildIgnoredClassLoadersTrie()))
+            .or(new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie()))
+            .or(
+                (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+                  return HelperInjector.isInjectedClass(classLoader, typeDescription.getName());
+                });
+    if (ClassPathPrescanner.isEnabled()) {
+      ignored = ignored.or(ClassPathPrescanner.ignoreMatcher());
+    }
+    return ignored;
   }
 
   private static void addHttpServerResponseCustomizers(ClassLoader extensionClassLoader) {
@@ -448,7 +559,9 @@ public class AgentInstaller {
     public void onComplete(
         String typeName, ClassLoader classLoader, JavaModule javaModule, boolean b) {
       synchronized (CLASS_LOAD_CALLBACKS) {
-        List<Runnable> callbacks = CLASS_LOAD_CALLBACKS.get(typeName);
+        // the callbacks are removed after running them, a class can be seen by more than one
+        // transformer when instrumentation modules are installed lazily
+        List<Runnable> callbacks = CLASS_LOAD_CALLBACKS.remove(typeName);
         if (callbacks != null) {
           for (Runnable callback : callbacks) {
             callback.run();
@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import com.google.auto.service.AutoService;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.javaagent.extension.AgentListener;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link AgentListener} that exports the {@link HelperInjectionMetrics} when {@code
+ * otel.javaagent.experimental.helper-injection-metrics.enabled} is set.
+ */
+@AutoService(AgentListener.class)
+public class HelperInjectionMetricsInstaller implements AgentListener {
+
+  private static final String ENABLED_CONFIG =
+      "otel.javaagent.experimental.helper-injection-metrics.enabled";
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Override
+  public void afterAgent(AutoConfiguredOpenTelemetrySdk autoConfiguredSdk) {
+    if (!autoConfiguredSdk.getConfig().getBoolean(ENABLED_CONFIG, false)) {
+      return;
+    }
+
+    Meter meter = GlobalOpenTelemetry.get().getMeter("io.opentelemetry.javaagent");
+    meter
+        .counterBuilder("otel.javaagent.helper_injection.classes")
+        .setDescription("Number of helper classes injected into application class loaders")
+        .setUnit("{class}")
+        .buildWithCallback(
+            measurement -> measurement.record(HelperInjectionMetrics.getInjectedClasses()));
+    meter
+        .counterBuilder("otel.javaagent.helper_injection.duration")
+        .ofDoubles()
+        .setDescription("Time spent injecting helper classes")
+        .setUnit("s")
+        .buildWithCallback(
+            measurement ->
+                measurement.record(HelperInjectionMetrics.getInjectionNanos() / NANOS_PER_SECOND));
+    meter
+        .counterBuilder("otel.javaagent.helper_injection.bytes_read")
+        .setDescription("Number of helper class file bytes read from the agent")
+        .setUnit("By")
+        .buildWithCallback(
+            measurement -> measurement.record(HelperInjectionMetrics.getBytesRead()));
+  }
+}
@@ -17,6 +17,7 @@ import io.opentelemetry.javaagent.bootstrap.VirtualFieldDetector;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
 import io.opentelemetry.javaagent.tooling.HelperInjector;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
+import io.opentelemetry.javaagent.tooling.ignore.ClassPathPrescanner;
 import io.opentelemetry.javaagent.tooling.instrumentation.InstrumentationModuleInstaller;
 import io.opentelemetry.javaagent.tooling.muzzle.VirtualFieldMappings;
 import io.opentelemetry.javaagent.tooling.util.IgnoreFailedTypeMatcher;
@@ -209,6 +210,7 @@ final class FieldBackedImplementationInstaller implements VirtualFieldImplementa
                   "VirtualField",
                   new IgnoreFailedTypeMatcher(
                       not(isAbstract()).and(hasSuperType(named(entry.getKey())))));
+          ClassPathPrescanner.registerTypeMatcher(typeMatcher);
 
           builder =
               builder
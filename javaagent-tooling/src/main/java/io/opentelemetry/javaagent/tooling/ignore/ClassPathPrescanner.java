@@ -0,0 +1,250 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.ignore;
+
+import static java.util.logging.Level.FINE;
+
+import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Matches the classes on the application class path against the type matchers of all
+ * instrumentations right after the agent is installed, using all but one of the available cores.
+ * The classes that none of the matchers match are remembered, and when the system class loader
+ * loads one of them later, the agent ignores it instead of running every matcher on the thread that
+ * loads the class.
+ *
+ * <p>Classes that are loaded before the scan reached them are matched as usual. Only the type
+ * matchers are evaluated during the scan; skipping the class loader matchers and the remaining
+ * conditions of the transformations can only cause a class to be matched, never to be ignored
+ * wrongly.
+ */
+public final class ClassPathPrescanner {
+
+  private static final Logger logger = Logger.getLogger(ClassPathPrescanner.class.getName());
+
+  // number of classes matched by a single fork join task
+  private static final int BATCH_SIZE = 256;
+
+  private static final List<ElementMatcher<TypeDescription>> typeMatchers =
+      new CopyOnWriteArrayList<>();
+  private static final Set<String> uninstrumentedClasses = ConcurrentHashMap.newKeySet();
+
+  private static volatile boolean enabled;
+
+  /** Enables the pre-scan, must be called before the instrumentations are installed. */
+  public static void enable() {
+    enabled = true;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Registers the type matcher of a transformation. Every type matcher that is installed on the
+   * agent builder must be registered, otherwise the classes it matches could be ignored.
+   */
+  public static void registerTypeMatcher(ElementMatcher<TypeDescription> typeMatcher) {
+    if (enabled) {
+      typeMatchers.add(typeMatcher);
+    }
+  }
+
+  /**
+   * Returns a matcher that matches the classes that are loaded by the system class loader for the
+   * first time and that the pre-scan found not to need any instrumentation.
+   */
+  public static AgentBuilder.RawMatcher ignoreMatcher() {
+    return ignoreMatcher(ClassLoader.getSystemClassLoader(), uninstrumentedClasses);
+  }
+
+  // visible for testing
+  static AgentBuilder.RawMatcher ignoreMatcher(
+      ClassLoader scannedClassLoader, Set<String> uninstrumentedClasses) {
+    return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) ->
+        classBeingRedefined == null
+            && classLoader == scannedClassLoader
+            // every class is loaded only once, so the entry isn't needed anymore
+            && uninstrumentedClasses.remove(typeDescription.getName());
+  }
+
+  /** Starts the pre-scan in the background, must be called after the agent is installed. */
+  public static void start() {
+    if (!enabled) {
+      return;
+    }
+    ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+    List<Path> classPath = new ArrayList<>();
+    for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+      if (!entry.isEmpty()) {
+        classPath.add(Paths.get(entry));
+      }
+    }
+    List<ElementMatcher<TypeDescription>> matchers = new ArrayList<>(typeMatchers);
+    typeMatchers.clear();
+
+    Thread thread =
+        new Thread(
+            () -> {
+              long startNanos = System.nanoTime();
+              List<String> classNames = listClasses(classPath);
+              scan(classLoader, classNames, matchers, uninstrumentedClasses);
+              if (logger.isLoggable(FINE)) {
+                logger.log(
+                    FINE,
+                    "Pre-scanned {0} classes against {1} type matchers in {2} ms",
+                    new Object[] {
+                      classNames.size(),
+                      matchers.size(),
+                      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)
+                    });
+              }
+            },
+            "otel-javaagent-prescan");
+    thread.setDaemon(true);
+    thread.setContextClassLoader(null);
+    thread.start();
+  }
+
+  // visible for testing
+  static List<String> listClasses(List<Path> classPath) {
+    List<String> classNames = new ArrayList<>();
+    for (Path entry : classPath) {
+      try {
+        if (Files.isDirectory(entry)) {
+          try (Stream<Path> files = Files.walk(entry)) {
+            files.forEach(
+                file ->
+                    addClassName(
+                        classNames, entry.relativize(file).toString(), File.separatorChar));
+          }
+        } else if (Files.isRegularFile(entry)) {
+          try (JarFile jarFile = new JarFile(entry.toFile())) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+              addClassName(classNames, entries.nextElement().getName(), '/');
+            }
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        logger.log(FINE, "Unable to list the classes in " + entry, e);
+      }
+    }
+    return classNames;
+  }
+
+  private static void addClassName(List<String> classNames, String path, char separator) {
+    // multi-release versions and module descriptors are never looked up by these names
+    if (!path.endsWith(".class")
+        || path.startsWith("META-INF")
+        || path.endsWith("module-info.class")
+        || path.endsWith("package-info.class")) {
+      return;
+    }
+    classNames.add(path.substring(0, path.length() - ".class".length()).replace(separator, '.'));
+  }
+
+  // visible for testing
+  static void scan(
+      ClassLoader classLoader,
+      List<String> classNames,
+      List<ElementMatcher<TypeDescription>> matchers,
+      Set<String> result) {
+    // leave one core to the application, which is starting up at the same time
+    ForkJoinPool pool =
+        new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    try {
+      pool.invoke(new ScanTask(classLoader, classNames, 0, classNames.size(), matchers, result));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static final class ScanTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ClassLoader classLoader;
+    private final transient List<String> classNames;
+    private final int from;
+    private final int to;
+    private final transient List<ElementMatcher<TypeDescription>> matchers;
+    private final transient Set<String> result;
+
+    ScanTask(
+        ClassLoader classLoader,
+        List<String> classNames,
+        int from,
+        int to,
+        List<ElementMatcher<TypeDescription>> matchers,
+        Set<String> result) {
+      this.classLoader = classLoader;
+      this.classNames = classNames;
+      this.from = from;
+      this.to = to;
+      this.matchers = matchers;
+      this.result = result;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > BATCH_SIZE) {
+        int middle = (from + to) >>> 1;
+        invokeAll(
+            new ScanTask(classLoader, classNames, from, middle, matchers, result),
+            new ScanTask(classLoader, classNames, middle, to, matchers, result));
+        return;
+      }
+      TypePool typePool =
+          AgentTooling.poolStrategy()
+              .typePool(AgentTooling.locationStrategy().classFileLocator(classLoader), classLoader);
+      for (int i = from; i < to; i++) {
+        String className = classNames.get(i);
+        if (!matchesAny(typePool, className)) {
+          result.add(className);
+        }
+      }
+    }
+
+    private boolean matchesAny(TypePool typePool, String className) {
+      try {
+        TypeDescription typeDescription = typePool.describe(className).resolve();
+        for (ElementMatcher<TypeDescription> matcher : matchers) {
+          if (matcher.matches(typeDescription)) {
+            return true;
+          }
+        }
+        return false;
+      } catch (RuntimeException | LinkageError e) {
+        // leave it to the regular matching
+        return true;
+      }
+    }
+  }
+
+  private ClassPathPrescanner() {}
+}
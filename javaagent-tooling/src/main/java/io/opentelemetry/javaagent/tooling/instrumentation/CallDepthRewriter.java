@@ -0,0 +1,225 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.javaagent.bootstrap.CallDepth;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.field.FieldList;
+import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.JavaModule;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Rewrites {@code CallDepth.forClass(SomeClass.class)} calls in advice code to {@code
+ * CallDepth.forId(id)}, where the id of {@code SomeClass} is assigned when the advice is installed.
+ * Finding the call depth then only needs a thread local read and an array index instead of a class
+ * lookup. Calls that pass a class which is only known at runtime, and calls for class names that
+ * don't get an id, are left as they are.
+ *
+ * <p>The class literal is still loaded and then popped from the stack, the JIT compiler removes
+ * both instructions.
+ */
+final class CallDepthRewriter implements AgentBuilder.Transformer, AsmVisitorWrapper {
+  private static final CallDepthRewriter INSTANCE = new CallDepthRewriter();
+
+  private static final Method FOR_CLASS_METHOD;
+  private static final Method FOR_ID_METHOD;
+
+  static {
+    try {
+      FOR_CLASS_METHOD = CallDepth.class.getMethod("forClass", Class.class);
+      FOR_ID_METHOD = CallDepth.class.getMethod("forId", int.class);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final String CALL_DEPTH_INTERNAL_NAME = Type.getInternalName(CallDepth.class);
+  private static final String FOR_CLASS_DESCRIPTOR = Type.getMethodDescriptor(FOR_CLASS_METHOD);
+  private static final String FOR_ID_DESCRIPTOR = Type.getMethodDescriptor(FOR_ID_METHOD);
+
+  static AgentBuilder.Transformer instance() {
+    return INSTANCE;
+  }
+
+  private CallDepthRewriter() {}
+
+  @Override
+  public DynamicType.Builder<?> transform(
+      DynamicType.Builder<?> builder,
+      TypeDescription typeDescription,
+      ClassLoader classLoader,
+      JavaModule javaModule,
+      ProtectionDomain protectionDomain) {
+    return builder.visit(this);
+  }
+
+  @Override
+  public int mergeWriter(int flags) {
+    return flags;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public int mergeReader(int flags) {
+    return flags;
+  }
+
+  @Override
+  public ClassVisitor wrap(
+      TypeDescription instrumentedType,
+      ClassVisitor classVisitor,
+      Implementation.Context implementationContext,
+      TypePool typePool,
+      FieldList<FieldDescription.InDefinedShape> fields,
+      MethodList<?> methods,
+      int writerFlags,
+      int readerFlags) {
+
+    return new ClassVisitor(Opcodes.ASM7, classVisitor) {
+      @Override
+      public MethodVisitor visitMethod(
+          int access, String name, String descriptor, String signature, String[] exceptions) {
+        MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+        return new ForClassRewritingMethodVisitor(mv);
+      }
+    };
+  }
+
+  private static final class ForClassRewritingMethodVisitor extends MethodVisitor {
+
+    /** The class literal loaded by the most recent instruction, if it was one. */
+    @Nullable private Type lastClassLiteral;
+
+    ForClassRewritingMethodVisitor(MethodVisitor mv) {
+      super(Opcodes.ASM7, mv);
+    }
+
+    @Override
+    public void visitMethodInsn(
+        int opcode, String owner, String name, String descriptor, boolean isInterface) {
+      Type classLiteral = lastClassLiteral;
+      lastClassLiteral = null;
+      if (classLiteral != null
+          && opcode == Opcodes.INVOKESTATIC
+          && CALL_DEPTH_INTERNAL_NAME.equals(owner)
+          && FOR_CLASS_METHOD.getName().equals(name)
+          && FOR_CLASS_DESCRIPTOR.equals(descriptor)) {
+        int id = CallDepth.getId(classLiteral.getClassName());
+        if (id >= 0) {
+          // stack: class literal
+          super.visitInsn(Opcodes.POP);
+          super.visitLdcInsn(id);
+          super.visitMethodInsn(
+              Opcodes.INVOKESTATIC,
+              CALL_DEPTH_INTERNAL_NAME,
+              FOR_ID_METHOD.getName(),
+              FOR_ID_DESCRIPTOR,
+              /* isInterface= */ false);
+          return;
+        }
+      }
+      super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+      // array types are named differently by asm and by Class.getName(), they are not rewritten
+      lastClassLiteral =
+          value instanceof Type && ((Type) value).getSort() == Type.OBJECT ? (Type) value : null;
+      super.visitLdcInsn(value);
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+      lastClassLiteral = null;
+      super.visitInsn(opcode);
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+      lastClassLiteral = null;
+      super.visitIntInsn(opcode, operand);
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int var) {
+      lastClassLiteral = null;
+      super.visitVarInsn(opcode, var);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+      lastClassLiteral = null;
+      super.visitTypeInsn(opcode, type);
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+      lastClassLiteral = null;
+      super.visitFieldInsn(opcode, owner, name, descriptor);
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(
+        String name, String descriptor, Handle bootstrapMethodHandle, Object... arguments) {
+      lastClassLiteral = null;
+      super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, arguments);
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+      lastClassLiteral = null;
+      super.visitJumpInsn(opcode, label);
+    }
+
+    @Override
+    public void visitLabel(Label label) {
+      // a jump may arrive here with something else on the stack
+      lastClassLiteral = null;
+      super.visitLabel(label);
+    }
+
+    @Override
+    public void visitIincInsn(int var, int increment) {
+      lastClassLiteral = null;
+      super.visitIincInsn(var, increment);
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+      lastClassLiteral = null;
+      super.visitTableSwitchInsn(min, max, dflt, labels);
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+      lastClassLiteral = null;
+      super.visitLookupSwitchInsn(dflt, keys, labels);
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+      lastClassLiteral = null;
+      super.visitMultiANewArrayInsn(descriptor, numDimensions);
+    }
+  }
+}
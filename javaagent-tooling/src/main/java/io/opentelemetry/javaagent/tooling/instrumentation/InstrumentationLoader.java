@@ -27,7 +27,9 @@ public class InstrumentationLoader implements AgentExtension {
 
   @Override
   public AgentBuilder extend(AgentBuilder agentBuilder, ConfigProperties config) {
+    LazyModuleActivator lazyModuleActivator = LazyModuleActivator.get();
     int numberOfLoadedModules = 0;
+    int numberOfDeferredModules = 0;
     for (InstrumentationModule instrumentationModule :
         loadOrdered(InstrumentationModule.class, Utils.getExtensionsClassLoader())) {
       if (logger.isLoggable(FINE)) {
@@ -40,6 +42,10 @@ public class InstrumentationLoader implements AgentExtension {
             });
       }
       try {
+        if (lazyModuleActivator != null && lazyModuleActivator.defer(instrumentationModule)) {
+          numberOfDeferredModules++;
+          continue;
+        }
         agentBuilder =
             instrumentationModuleInstaller.install(instrumentationModule, agentBuilder, config);
         numberOfLoadedModules++;
@@ -55,6 +61,10 @@ public class InstrumentationLoader implements AgentExtension {
       }
     }
     logger.log(FINE, "Installed {0} instrumenter(s)", numberOfLoadedModules);
+    if (lazyModuleActivator != null) {
+      logger.log(FINE, "Deferred {0} instrumenter(s)", numberOfDeferredModules);
+      agentBuilder = lazyModuleActivator.installSentinel(agentBuilder);
+    }
 
     return agentBuilder;
   }
@@ -20,6 +20,7 @@ import io.opentelemetry.javaagent.tooling.bytebuddy.LoggingFailSafeMatcher;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstaller;
 import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstallerFactory;
+import io.opentelemetry.javaagent.tooling.ignore.ClassPathPrescanner;
 import io.opentelemetry.javaagent.tooling.muzzle.HelperResourceBuilderImpl;
 import io.opentelemetry.javaagent.tooling.muzzle.InstrumentationModuleMuzzle;
 import io.opentelemetry.javaagent.tooling.util.IgnoreFailedTypeMatcher;
@@ -80,7 +81,8 @@ public final class InstrumentationModuleInstaller {
 
     ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
         instrumentationModule.classLoaderMatcher();
-    MuzzleMatcher muzzleMatcher = new MuzzleMatcher(logger, instrumentationModule, config);
+    AgentBuilder.RawMatcher muzzleMatcher =
+        new MuzzleMatcher(logger, instrumentationModule, config);
     AgentBuilder.Transformer helperInjector =
         new HelperInjector(
             instrumentationModule.instrumentationName(),
@@ -88,23 +90,38 @@ public final class InstrumentationModuleInstaller {
             helperResourceBuilder.getResources(),
             Utils.getExtensionsClassLoader(),
             instrumentation);
+    StartupProfiler.ModuleProfile moduleProfile = null;
+    if (StartupProfiler.isEnabled()) {
+      moduleProfile = StartupProfiler.profile(instrumentationModule);
+      muzzleMatcher = moduleProfile.timeMuzzle(muzzleMatcher);
+      helperInjector = moduleProfile.timeHelperInjection(helperInjector);
+    }
     VirtualFieldImplementationInstaller contextProvider =
         virtualFieldInstallerFactory.create(instrumentationModule);
 
     AgentBuilder agentBuilder = parentAgentBuilder;
     for (TypeInstrumentation typeInstrumentation : typeInstrumentations) {
+      StartupProfiler.TypeProfile typeProfile =
+          moduleProfile != null ? moduleProfile.typeInstrumentation(typeInstrumentation) : null;
       ElementMatcher<TypeDescription> typeMatcher =
           new NamedMatcher<>(
               instrumentationModule.getClass().getSimpleName()
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
               new IgnoreFailedTypeMatcher(typeInstrumentation.typeMatcher()));
+      ClassPathPrescanner.registerTypeMatcher(typeMatcher);
       ElementMatcher<ClassLoader> classLoaderMatcher =
           new NamedMatcher<>(
               instrumentationModule.getClass().getSimpleName()
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
               moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization()));
+      AgentBuilder.Transformer constantAdjuster = ConstantAdjuster.instance();
+      if (typeProfile != null) {
+        typeMatcher = typeProfile.timeMatcher(typeMatcher);
+        classLoaderMatcher = typeProfile.timeMatcher(classLoaderMatcher);
+        constantAdjuster = typeProfile.markTransformation(constantAdjuster);
+      }
 
       AgentBuilder.Identified.Extendable extendableAgentBuilder =
           agentBuilder
@@ -120,8 +137,9 @@ public final class InstrumentationModuleInstaller {
                   (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) ->
                       classLoader == null || NOT_DECORATOR_MATCHER.matches(typeDescription))
               .and(muzzleMatcher)
-              .transform(ConstantAdjuster.instance())
-              .transform(helperInjector);
+              .transform(constantAdjuster)
+              .transform(helperInjector)
+              .transform(CallDepthRewriter.instance());
       extendableAgentBuilder = contextProvider.rewriteVirtualFieldsCalls(extendableAgentBuilder);
       TypeTransformerImpl typeTransformer = new TypeTransformerImpl(extendableAgentBuilder);
       typeInstrumentation.transform(typeTransformer);
@@ -0,0 +1,286 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.SEVERE;
+import static net.bytebuddy.matcher.ElementMatchers.any;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.AgentBuilderUtil;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/**
+ * Defers the installation of the instrumentation modules that only apply to some class loaders
+ * until a class loader matching their {@link InstrumentationModule#classLoaderMatcher()} is seen.
+ * Until then the agent only evaluates a single sentinel matcher, which checks every new class
+ * loader against the class loader matchers of the modules that are not installed yet, instead of
+ * evaluating the type matchers of all modules for every loaded class.
+ *
+ * <p>When the first class of a matching class loader is loaded, the modules are installed in the
+ * background with a separate, retransformation capable transformer. The classes of that class
+ * loader that were already loaded by then, including the one that triggered the installation, are
+ * retransformed right after. The transformer of a module is installed only once, it is shared by
+ * all class loaders; the classes that other matching class loaders loaded before it was installed
+ * are retransformed when these class loaders are activated.
+ */
+public final class LazyModuleActivator {
+
+  private static final Logger logger = Logger.getLogger(LazyModuleActivator.class.getName());
+
+  @Nullable private static volatile LazyModuleActivator instance;
+
+  private final AgentBuilder agentBuilder;
+  private final Instrumentation instrumentation;
+  private final ConfigProperties config;
+  private final InstrumentationModuleInstaller instrumentationModuleInstaller;
+  private final List<DeferredModule> pendingModules = new ArrayList<>();
+  private final List<DeferredModule> activatedModules = new ArrayList<>();
+  private final Cache<ClassLoader, Boolean> seenClassLoaders = Cache.weak();
+  private final ExecutorService activator =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "otel-javaagent-lazy-modules");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private volatile boolean hasPendingModules;
+
+  // visible for testing
+  LazyModuleActivator(
+      AgentBuilder agentBuilder, Instrumentation instrumentation, ConfigProperties config) {
+    // the transformers of activated modules must be able to retransform the classes that were
+    // loaded before the activation
+    this.agentBuilder = agentBuilder.with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
+    this.instrumentation = instrumentation;
+    this.config = config;
+    this.instrumentationModuleInstaller = new InstrumentationModuleInstaller(instrumentation);
+  }
+
+  /**
+   * Enables the lazy installation of instrumentation modules, the modules will be installed on top
+   * of the given {@link AgentBuilder}.
+   */
+  public static void enable(
+      AgentBuilder agentBuilder, Instrumentation instrumentation, ConfigProperties config) {
+    instance = new LazyModuleActivator(agentBuilder, instrumentation, config);
+  }
+
+  @Nullable
+  static LazyModuleActivator get() {
+    return instance;
+  }
+
+  /**
+   * Defers the installation of the given module when it only applies to some class loaders.
+   * Returns {@code false} when the module needs to be installed right away.
+   */
+  synchronized boolean defer(InstrumentationModule instrumentationModule) {
+    ElementMatcher<ClassLoader> classLoaderMatcher = instrumentationModule.classLoaderMatcher();
+    if (any().equals(classLoaderMatcher)) {
+      return false;
+    }
+    pendingModules.add(new DeferredModule(instrumentationModule, classLoaderMatcher));
+    hasPendingModules = true;
+    return true;
+  }
+
+  /**
+   * Adds the matcher that installs the deferred modules when a matching class loader is seen, it
+   * never matches any type itself.
+   */
+  AgentBuilder installSentinel(AgentBuilder agentBuilder) {
+    return agentBuilder
+        .type(
+            (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+              if (classLoader != null && hasPendingModules && markSeen(classLoader)) {
+                String typeName = typeDescription.getName();
+                activator.execute(() -> activate(classLoader, typeName));
+              }
+              return false;
+            })
+        .transform((builder, typeDescription, classLoader, module, protectionDomain) -> builder);
+  }
+
+  // called from the class file transformer, only touches the cache while holding the lock
+  private synchronized boolean markSeen(ClassLoader classLoader) {
+    if (seenClassLoaders.get(classLoader) != null) {
+      return false;
+    }
+    seenClassLoaders.put(classLoader, Boolean.TRUE);
+    return true;
+  }
+
+  private void activate(ClassLoader classLoader, String typeName) {
+    try {
+      // waits until the class that triggered the activation is loaded, so that it is
+      // retransformed together with the other classes of its class loader
+      Class.forName(typeName, false, classLoader);
+    } catch (ClassNotFoundException | LinkageError ignored) {
+      // retransform the other classes
+    }
+
+    try {
+      boolean matchesActivated = matchesActivated(classLoader);
+      List<InstrumentationModule> matched = removeMatching(classLoader);
+      if (!matched.isEmpty()) {
+        install(classLoader, matched);
+      } else if (matchesActivated) {
+        // another class loader activated the modules, their transformers are already installed
+        retransform(classLoader);
+      }
+    } finally {
+      // new class loaders are checked until the transformers of the matched modules are installed,
+      // the classes they load in the meantime are retransformed when they are activated
+      synchronized (this) {
+        hasPendingModules = !pendingModules.isEmpty();
+      }
+    }
+  }
+
+  private void install(ClassLoader classLoader, List<InstrumentationModule> matched) {
+    AgentBuilder moduleAgentBuilder = agentBuilder;
+    for (InstrumentationModule instrumentationModule : matched) {
+      if (logger.isLoggable(FINE)) {
+        logger.log(
+            FINE,
+            "Activating instrumentation {0} [class {1}] on {2}",
+            new Object[] {
+              instrumentationModule.instrumentationName(),
+              instrumentationModule.getClass().getName(),
+              classLoader
+            });
+      }
+      try {
+        moduleAgentBuilder =
+            instrumentationModuleInstaller.install(
+                instrumentationModule, moduleAgentBuilder, config);
+      } catch (Exception | LinkageError e) {
+        logger.log(
+            SEVERE,
+            "Unable to load instrumentation "
+                + instrumentationModule.instrumentationName()
+                + " [class "
+                + instrumentationModule.getClass().getName()
+                + "]",
+            e);
+      }
+    }
+    // the transformer is registered before the loaded classes are discovered, so every class of
+    // the class loader is either retransformed or transformed when it is loaded; retransforming
+    // also applies the transformers of the modules that were activated before
+    AgentBuilderUtil.optimize(
+            moduleAgentBuilder.with(new ClassLoaderDiscoveryStrategy(classLoader)))
+        .installOn(instrumentation);
+  }
+
+  private void retransform(ClassLoader classLoader) {
+    List<Class<?>> classes = new ArrayList<>();
+    for (Class<?> clazz : loadedClasses(instrumentation, classLoader)) {
+      if (instrumentation.isModifiableClass(clazz)) {
+        classes.add(clazz);
+      }
+    }
+    if (classes.isEmpty()) {
+      return;
+    }
+    try {
+      instrumentation.retransformClasses(classes.toArray(new Class<?>[0]));
+    } catch (UnmodifiableClassException | RuntimeException | LinkageError e) {
+      logger.log(FINE, "Unable to retransform the classes of " + classLoader, e);
+    }
+  }
+
+  // visible for testing
+  boolean matchesActivated(ClassLoader classLoader) {
+    List<DeferredModule> candidates;
+    synchronized (this) {
+      candidates = new ArrayList<>(activatedModules);
+    }
+    for (DeferredModule activatedModule : candidates) {
+      if (activatedModule.classLoaderMatcher.matches(classLoader)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // visible for testing
+  List<InstrumentationModule> removeMatching(ClassLoader classLoader) {
+    List<DeferredModule> candidates;
+    synchronized (this) {
+      candidates = new ArrayList<>(pendingModules);
+    }
+    // class loader matchers look up resources through the class loader and its parents, they are
+    // evaluated without holding the lock
+    List<DeferredModule> matching = new ArrayList<>();
+    for (DeferredModule pendingModule : candidates) {
+      if (pendingModule.classLoaderMatcher.matches(classLoader)) {
+        matching.add(pendingModule);
+      }
+    }
+    List<InstrumentationModule> matched = new ArrayList<>();
+    synchronized (this) {
+      for (DeferredModule pendingModule : matching) {
+        if (pendingModules.remove(pendingModule)) {
+          activatedModules.add(pendingModule);
+          matched.add(pendingModule.instrumentationModule);
+        }
+      }
+    }
+    return matched;
+  }
+
+  private static List<Class<?>> loadedClasses(
+      Instrumentation instrumentation, ClassLoader classLoader) {
+    List<Class<?>> classes = new ArrayList<>();
+    for (Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+      if (clazz.getClassLoader() == classLoader) {
+        classes.add(clazz);
+      }
+    }
+    return classes;
+  }
+
+  /** Discovers the loaded classes of a single class loader for retransformation. */
+  private static final class ClassLoaderDiscoveryStrategy
+      implements AgentBuilder.RedefinitionStrategy.DiscoveryStrategy {
+    private final ClassLoader classLoader;
+
+    ClassLoaderDiscoveryStrategy(ClassLoader classLoader) {
+      this.classLoader = classLoader;
+    }
+
+    @Override
+    public Iterable<Iterable<Class<?>>> resolve(Instrumentation instrumentation) {
+      return Collections.singletonList(loadedClasses(instrumentation, classLoader));
+    }
+  }
+
+  private static final class DeferredModule {
+    final InstrumentationModule instrumentationModule;
+    final ElementMatcher<ClassLoader> classLoaderMatcher;
+
+    DeferredModule(
+        InstrumentationModule instrumentationModule,
+        ElementMatcher<ClassLoader> classLoaderMatcher) {
+      this.instrumentationModule = instrumentationModule;
+      this.classLoaderMatcher = classLoaderMatcher;
+    }
+  }
+}
@@ -40,6 +40,7 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
   private final Level muzzleLogLevel;
   private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final Cache<ClassLoader, Boolean> matchCache = Cache.weak();
+  private final MuzzleResultCache resultCache = new MuzzleResultCache();
   private volatile ReferenceMatcher referenceMatcher;
 
   MuzzleMatcher(
@@ -66,7 +67,7 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
 
   private boolean doesMatch(ClassLoader classLoader) {
     ReferenceMatcher muzzle = getReferenceMatcher();
-    boolean isMatch = muzzle.matches(classLoader);
+    boolean isMatch = resultCache.matches(classLoader, muzzle::matches);
 
     if (!isMatch) {
       MuzzleFailureCounter.inc();
@@ -0,0 +1,178 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Shares the muzzle results of an instrumentation module between class loaders that load classes
+ * from the same jars, e.g. multiple deployments of the same webapp on an application server. The
+ * class loaders are identified by a fingerprint of their class, their parent and the contents of
+ * their class path, which only {@link URLClassLoader}s with {@code file:} URLs that all exist
+ * have. Jars are fingerprinted by the names, sizes and checksums in their central directory,
+ * directories by the names and contents of their files; their locations don't matter since every
+ * deployment of a webapp is usually extracted to a different directory.
+ */
+public final class MuzzleResultCache {
+
+  private static final String NO_FINGERPRINT = "";
+
+  private static final Cache<ClassLoader, String> fingerprints = Cache.weak();
+  private static final LongAdder hits = new LongAdder();
+  private static final LongAdder misses = new LongAdder();
+
+  private static volatile boolean enabled;
+
+  // keyed by the parent class loader, so that the results don't keep it alive
+  private final Cache<ClassLoader, Map<String, Boolean>> results = Cache.weak();
+
+  public static void enable(Meter meter) {
+    enabled = true;
+
+    meter
+        .counterBuilder("otel.javaagent.muzzle.cache.hits")
+        .setDescription("Number of muzzle checks answered by the muzzle result cache")
+        .setUnit("{check}")
+        .buildWithCallback(measurement -> measurement.record(hits.sum()));
+    meter
+        .counterBuilder("otel.javaagent.muzzle.cache.misses")
+        .setDescription("Number of muzzle checks that had to resolve the muzzle references")
+        .setUnit("{check}")
+        .buildWithCallback(measurement -> measurement.record(misses.sum()));
+  }
+
+  // visible for testing
+  static void enable() {
+    enabled = true;
+  }
+
+  // visible for testing
+  static long getHits() {
+    return hits.sum();
+  }
+
+  // visible for testing
+  static long getMisses() {
+    return misses.sum();
+  }
+
+  boolean matches(ClassLoader classLoader, Predicate<ClassLoader> referenceMatcher) {
+    ClassLoader parent = classLoader.getParent();
+    if (!enabled || parent == null) {
+      return referenceMatcher.test(classLoader);
+    }
+    String fingerprint = fingerprints.computeIfAbsent(classLoader, MuzzleResultCache::fingerprint);
+    if (fingerprint.isEmpty()) {
+      return referenceMatcher.test(classLoader);
+    }
+
+    Map<String, Boolean> parentResults =
+        results.computeIfAbsent(parent, unused -> new ConcurrentHashMap<>());
+    Boolean result = parentResults.get(fingerprint);
+    if (result != null) {
+      hits.increment();
+      return result;
+    }
+    misses.increment();
+    boolean isMatch = referenceMatcher.test(classLoader);
+    parentResults.put(fingerprint, isMatch);
+    return isMatch;
+  }
+
+  // visible for testing
+  static String fingerprint(ClassLoader classLoader) {
+    if (!(classLoader instanceof URLClassLoader)) {
+      return NO_FINGERPRINT;
+    }
+    URL[] urls = ((URLClassLoader) classLoader).getURLs();
+    if (urls.length == 0) {
+      // nothing tells these class loaders apart, e.g. ones that define their classes themselves
+      return NO_FINGERPRINT;
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      update(digest, classLoader.getClass().getName());
+      for (URL url : urls) {
+        if (!"file".equals(url.getProtocol())) {
+          return NO_FINGERPRINT;
+        }
+        File file = new File(url.toURI());
+        if (file.isFile()) {
+          update(digest, "jar");
+          updateWithJar(digest, file);
+        } else if (file.isDirectory()) {
+          update(digest, "directory");
+          updateWithDirectory(digest, file.toPath());
+        } else {
+          // the class path entry may still be created, e.g. by a webapp that is being extracted
+          return NO_FINGERPRINT;
+        }
+      }
+      return Base64.getEncoder().encodeToString(digest.digest());
+    } catch (Exception e) {
+      // e.g. an unreadable jar, these class loaders go through the regular muzzle check
+      return NO_FINGERPRINT;
+    }
+  }
+
+  private static void updateWithJar(MessageDigest digest, File file) throws IOException {
+    try (ZipFile zipFile = new ZipFile(file)) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        update(digest, entry.getName());
+        update(digest, entry.getSize());
+        update(digest, entry.getCrc());
+      }
+    }
+  }
+
+  private static void updateWithDirectory(MessageDigest digest, Path directory)
+      throws IOException {
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(directory)) {
+      files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      update(digest, directory.relativize(file).toString().replace(File.separatorChar, '/'));
+      byte[] bytes = Files.readAllBytes(file);
+      update(digest, bytes.length);
+      digest.update(bytes);
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    byte[] bytes = value.getBytes(UTF_8);
+    update(digest, bytes.length);
+    digest.update(bytes);
+  }
+
+  private static void update(MessageDigest digest, long value) {
+    digest.update(ByteBuffer.allocate(Long.BYTES).putLong(value).array());
+  }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingMatcher;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.ProtectionDomain;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Attributes the time that the agent spends during application startup to the instrumentation
+ * modules and their type instrumentations: type matching, muzzle checks, helper injection and
+ * bytecode transformation. The profile is recorded for a fixed time after the agent is installed
+ * and then reported to the log and, optionally, to a JSON file.
+ *
+ * <p>The bytecode of a class is transformed by all matching type instrumentations in one pass, the
+ * transformation time of a class is split evenly between them.
+ */
+public final class StartupProfiler {
+
+  private static final Logger logger = Logger.getLogger(StartupProfiler.class.getName());
+
+  private static final int LOGGED_MODULES = 20;
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final Map<String, ModuleProfile> modules = new ConcurrentHashMap<>();
+  private static final ThreadLocal<Deque<Transformation>> transformations =
+      ThreadLocal.withInitial(ArrayDeque::new);
+  private static final AtomicBoolean reported = new AtomicBoolean();
+
+  private static volatile boolean enabled;
+  private static volatile boolean recording;
+  @Nullable private static volatile Path jsonReport;
+
+  /**
+   * Starts recording the profile, which is reported after {@code duration} or when the JVM shuts
+   * down, whichever happens first.
+   */
+  public static AgentBuilder.Listener start(Duration duration, @Nullable Path jsonReport) {
+    StartupProfiler.jsonReport = jsonReport;
+    enabled = true;
+    recording = true;
+
+    Thread reporter =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(duration.toMillis());
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              report();
+            },
+            "otel-javaagent-startup-profiler");
+    reporter.setDaemon(true);
+    reporter.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(StartupProfiler::report));
+
+    return new TransformationListener();
+  }
+
+  static boolean isEnabled() {
+    return enabled;
+  }
+
+  static ModuleProfile profile(InstrumentationModule instrumentationModule) {
+    return modules.computeIfAbsent(
+        instrumentationModule.getClass().getName(),
+        unused -> new ModuleProfile(instrumentationModule));
+  }
+
+  private static long elapsedSince(long startTime) {
+    return System.nanoTime() - startTime;
+  }
+
+  private static void report() {
+    if (!reported.compareAndSet(false, true)) {
+      return;
+    }
+    recording = false;
+
+    List<ModuleProfile> profiles = new ArrayList<>(modules.values());
+    profiles.sort(Comparator.comparingLong(ModuleProfile::totalNanos).reversed());
+
+    if (logger.isLoggable(INFO)) {
+      StringBuilder message = new StringBuilder("Agent startup profile, most expensive modules:");
+      for (int i = 0; i < profiles.size() && i < LOGGED_MODULES; i++) {
+        ModuleProfile profile = profiles.get(i);
+        message
+            .append("\n  ")
+            .append(profile.name)
+            .append(" [")
+            .append(profile.instrumentationName)
+            .append("]: total ")
+            .append(millis(profile.totalNanos()))
+            .append(" ms, type matching ")
+            .append(millis(profile.typeMatchingNanos()))
+            .append(" ms, muzzle ")
+            .append(millis(profile.muzzleNanos.sum()))
+            .append(" ms, helper injection ")
+            .append(millis(profile.helperInjectionNanos.sum()))
+            .append(" ms, transformation ")
+            .append(millis(profile.transformationNanos()))
+            .append(" ms");
+      }
+      logger.log(INFO, message.toString());
+    }
+
+    Path path = jsonReport;
+    if (path != null) {
+      try {
+        Files.write(path, toJson(profiles).getBytes(UTF_8));
+      } catch (IOException e) {
+        logger.log(WARNING, "Failed to write the agent startup profile to " + path, e);
+      }
+    }
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI);
+  }
+
+  // visible for testing
+  static String toJson(List<ModuleProfile> profiles) {
+    StringBuilder json = new StringBuilder("{\"modules\":[");
+    for (int i = 0; i < profiles.size(); i++) {
+      ModuleProfile profile = profiles.get(i);
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"name\":");
+      appendString(json, profile.name);
+      json.append(",\"instrumentationName\":");
+      appendString(json, profile.instrumentationName);
+      json.append(",\"totalNanos\":")
+          .append(profile.totalNanos())
+          .append(",\"typeMatchingNanos\":")
+          .append(profile.typeMatchingNanos())
+          .append(",\"muzzleNanos\":")
+          .append(profile.muzzleNanos.sum())
+          .append(",\"helperInjectionNanos\":")
+          .append(profile.helperInjectionNanos.sum())
+          .append(",\"transformationNanos\":")
+          .append(profile.transformationNanos())
+          .append(",\"typeInstrumentations\":[");
+      List<TypeProfile> types = new ArrayList<>(profile.types.values());
+      types.sort(Comparator.comparingLong(TypeProfile::totalNanos).reversed());
+      for (int j = 0; j < types.size(); j++) {
+        TypeProfile type = types.get(j);
+        if (j > 0) {
+          json.append(',');
+        }
+        json.append("{\"name\":");
+        appendString(json, type.name);
+        json.append(",\"totalNanos\":")
+            .append(type.totalNanos())
+            .append(",\"typeMatchingNanos\":")
+            .append(type.typeMatchingNanos.sum())
+            .append(",\"transformationNanos\":")
+            .append(type.transformationNanos.sum())
+            .append('}');
+      }
+      json.append("]}");
+    }
+    return json.append("]}").toString();
+  }
+
+  private static void appendString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+
+  static final class ModuleProfile {
+    final String name;
+    final String instrumentationName;
+    final LongAdder muzzleNanos = new LongAdder();
+    final LongAdder helperInjectionNanos = new LongAdder();
+    final Map<String, TypeProfile> types = new ConcurrentHashMap<>();
+
+    ModuleProfile(InstrumentationModule instrumentationModule) {
+      this.name = instrumentationModule.getClass().getSimpleName();
+      this.instrumentationName = instrumentationModule.instrumentationName();
+    }
+
+    TypeProfile typeInstrumentation(TypeInstrumentation typeInstrumentation) {
+      return types.computeIfAbsent(
+          typeInstrumentation.getClass().getName(),
+          unused -> new TypeProfile(typeInstrumentation.getClass().getSimpleName()));
+    }
+
+    AgentBuilder.RawMatcher timeMuzzle(AgentBuilder.RawMatcher muzzleMatcher) {
+      return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+        if (!recording) {
+          return muzzleMatcher.matches(
+              typeDescription, classLoader, module, classBeingRedefined, protectionDomain);
+        }
+        long startTime = System.nanoTime();
+        try {
+          return muzzleMatcher.matches(
+              typeDescription, classLoader, module, classBeingRedefined, protectionDomain);
+        } finally {
+          muzzleNanos.add(elapsedSince(startTime));
+        }
+      };
+    }
+
+    AgentBuilder.Transformer timeHelperInjection(AgentBuilder.Transformer helperInjector) {
+      return new AgentBuilder.Transformer() {
+        @Override
+        public DynamicType.Builder<?> transform(
+            DynamicType.Builder<?> builder,
+            TypeDescription typeDescription,
+            ClassLoader classLoader,
+            JavaModule javaModule,
+            ProtectionDomain protectionDomain) {
+          if (!recording) {
+            return helperInjector.transform(
+                builder, typeDescription, classLoader, javaModule, protectionDomain);
+          }
+          long startTime = System.nanoTime();
+          try {
+            return helperInjector.transform(
+                builder, typeDescription, classLoader, javaModule, protectionDomain);
+          } finally {
+            long elapsed = elapsedSince(startTime);
+            helperInjectionNanos.add(elapsed);
+            Transformation transformation = transformations.get().peek();
+            if (transformation != null) {
+              transformation.excludedNanos += elapsed;
+            }
+          }
+        }
+      };
+    }
+
+    long typeMatchingNanos() {
+      long total = 0;
+      for (TypeProfile type : types.values()) {
+        total += type.typeMatchingNanos.sum();
+      }
+      return total;
+    }
+
+    long transformationNanos() {
+      long total = 0;
+      for (TypeProfile type : types.values()) {
+        total += type.transformationNanos.sum();
+      }
+      return total;
+    }
+
+    long totalNanos() {
+      return typeMatchingNanos()
+          + muzzleNanos.sum()
+          + helperInjectionNanos.sum()
+          + transformationNanos();
+    }
+  }
+
+  static final class TypeProfile {
+    final String name;
+    final LongAdder typeMatchingNanos = new LongAdder();
+    final LongAdder transformationNanos = new LongAdder();
+
+    TypeProfile(String name) {
+      this.name = name;
+    }
+
+    <T> ElementMatcher<T> timeMatcher(ElementMatcher<T> matcher) {
+      return new TimedMatcher<>(matcher, typeMatchingNanos);
+    }
+
+    /**
+     * Wraps the first transformer of the type instrumentation to mark the current class as
+     * transformed by it.
+     */
+    AgentBuilder.Transformer markTransformation(AgentBuilder.Transformer firstTransformer) {
+      return (builder, typeDescription, classLoader, javaModule, protectionDomain) -> {
+        Transformation transformation = transformations.get().peek();
+        if (recording && transformation != null) {
+          if (transformation.profiles.isEmpty()) {
+            transformation.startTime = System.nanoTime();
+          }
+          transformation.profiles.add(this);
+        }
+        return firstTransformer.transform(
+            builder, typeDescription, classLoader, javaModule, protectionDomain);
+      };
+    }
+
+    long totalNanos() {
+      return typeMatchingNanos.sum() + transformationNanos.sum();
+    }
+  }
+
+  // implements DelegatingMatcher so that AgentBuilderUtil can still optimize the wrapped matcher
+  private static final class TimedMatcher<T> implements ElementMatcher<T>, DelegatingMatcher {
+    private final ElementMatcher<T> delegate;
+    private final LongAdder nanos;
+
+    TimedMatcher(ElementMatcher<T> delegate, LongAdder nanos) {
+      this.delegate = delegate;
+      this.nanos = nanos;
+    }
+
+    @Override
+    public boolean matches(T target) {
+      if (!recording) {
+        return delegate.matches(target);
+      }
+      long startTime = System.nanoTime();
+      try {
+        return delegate.matches(target);
+      } finally {
+        nanos.add(elapsedSince(startTime));
+      }
+    }
+
+    @Override
+    public ElementMatcher<?> getDelegate() {
+      return delegate;
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+
+  private static final class Transformation {
+    final long discoveryTime = System.nanoTime();
+    final List<TypeProfile> profiles = new ArrayList<>();
+    long startTime;
+    // time spent in helper injection and in transforming other classes that were loaded meanwhile
+    long excludedNanos;
+  }
+
+  private static final class TransformationListener extends AgentBuilder.Listener.Adapter {
+
+    @Override
+    public void onDiscovery(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      if (!recording) {
+        return;
+      }
+      transformations.get().push(new Transformation());
+    }
+
+    @Override
+    public void onComplete(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      if (!recording) {
+        // drops the transformations that were still in progress when the profile was reported
+        transformations.remove();
+        return;
+      }
+      Deque<Transformation> stack = transformations.get();
+      Transformation transformation = stack.poll();
+      if (transformation == null) {
+        return;
+      }
+      Transformation outer = stack.peek();
+      if (outer != null && !outer.profiles.isEmpty()) {
+        outer.excludedNanos += elapsedSince(transformation.discoveryTime);
+      }
+      if (transformation.profiles.isEmpty()) {
+        return;
+      }
+      long elapsed = elapsedSince(transformation.startTime) - transformation.excludedNanos;
+      long share = Math.max(elapsed, 0) / transformation.profiles.size();
+      for (TypeProfile profile : transformation.profiles) {
+        profile.transformationNanos.add(share);
+      }
+    }
+  }
+
+  private StartupProfiler() {}
+}
@@ -6,58 +6,101 @@
 package io.opentelemetry.javaagent.tooling.util;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import javax.annotation.Nullable;
-
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * A radix tree that is packed into a few arrays once it is built. Chains of nodes that have a
+ * single child and no value are collapsed into one edge with a multi character label, which keeps
+ * the number of nodes low for the long shared package prefixes of class names.
+ *
+ * <p>Nodes are numbered in breadth first order, so that the edges of every node are stored next to
+ * each other and edge {@code e} always leads to node {@code e + 1}:
+ *
+ * <ul>
+ *   <li>the edges of node {@code n} are {@code edgeStart[n]} (inclusive) to {@code edgeStart[n +
+ *       1]} (exclusive), sorted by their first character;
+ *   <li>the label of edge {@code e} is stored in {@code labels} from {@code labelStart[e]}
+ *       (inclusive) to {@code labelStart[e + 1]} (exclusive), its first character is also stored
+ *       in {@code firstChars[e]} to look up edges without touching the labels;
+ *   <li>the value of node {@code n} is {@code values[n]}.
+ * </ul>
+ */
 final class TrieImpl<V> implements Trie<V> {
 
-  private final Node<V> root;
-
-  private TrieImpl(Node<V> root) {
-    this.root = root;
+  private final int[] edgeStart;
+  private final char[] firstChars;
+  private final int[] labelStart;
+  private final char[] labels;
+  private final Object[] values;
+
+  private TrieImpl(
+      int[] edgeStart, char[] firstChars, int[] labelStart, char[] labels, Object[] values) {
+    this.edgeStart = edgeStart;
+    this.firstChars = firstChars;
+    this.labelStart = labelStart;
+    this.labels = labels;
+    this.values = values;
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public V getOrDefault(CharSequence str, V defaultValue) {
-    Node<V> node = root;
-    V lastMatchedValue = defaultValue;
-
-    for (int i = 0; i < str.length(); ++i) {
-      char c = str.charAt(i);
-      Node<V> next = node.getNext(c);
-      if (next == null) {
-        return lastMatchedValue;
+    int node = 0;
+    Object lastMatchedValue = values[0] != null ? values[0] : defaultValue;
+    int length = str.length();
+    int i = 0;
+
+    while (i < length) {
+      int edge = findEdge(node, str.charAt(i));
+      if (edge < 0) {
+        break;
+      }
+      int labelEnd = labelStart[edge + 1];
+      int j = labelStart[edge] + 1;
+      i++;
+      while (j < labelEnd && i < length && labels[j] == str.charAt(i)) {
+        i++;
+        j++;
       }
-      node = next;
+      if (j < labelEnd) {
+        // the string ended or diverged in the middle of the label, there are no values in there
+        break;
+      }
+      node = edge + 1;
       // next node matched, use its value if it's defined
-      lastMatchedValue = next.value != null ? next.value : lastMatchedValue;
+      if (values[node] != null) {
+        lastMatchedValue = values[node];
+      }
     }
 
-    return lastMatchedValue;
+    return (V) lastMatchedValue;
   }
 
-  static final class Node<V> {
-    final char[] chars;
-    final Node<V>[] children;
-    final V value;
-
-    Node(char[] chars, Node<V>[] children, V value) {
-      this.chars = chars;
-      this.children = children;
-      this.value = value;
-    }
-
-    @Nullable
-    Node<V> getNext(char c) {
-      int index = Arrays.binarySearch(chars, c);
-      if (index < 0) {
-        return null;
+  private int findEdge(int node, char c) {
+    int low = edgeStart[node];
+    int high = edgeStart[node + 1] - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char middleChar = firstChars[middle];
+      if (middleChar < c) {
+        low = middle + 1;
+      } else if (middleChar > c) {
+        high = middle - 1;
+      } else {
+        return middle;
       }
-      return children[index];
     }
+    return -1;
+  }
+
+  // visible for testing
+  int nodeCount() {
+    return values.length;
   }
 
   static final class BuilderImpl<V> implements Builder<V> {
@@ -67,46 +110,68 @@ final class TrieImpl<V> implements Trie<V> {
     @Override
     @CanIgnoreReturnValue
     public Builder<V> put(CharSequence str, V value) {
-      put(root, str, 0, value);
-      return this;
-    }
-
-    private void put(NodeBuilder<V> node, CharSequence str, int i, V value) {
-      if (str.length() == i) {
-        node.value = value;
-        return;
+      NodeBuilder<V> node = root;
+      for (int i = 0; i < str.length(); i++) {
+        node = node.children.computeIfAbsent(str.charAt(i), k -> new NodeBuilder<>());
       }
-      char c = str.charAt(i);
-      NodeBuilder<V> next = node.children.computeIfAbsent(c, k -> new NodeBuilder<>());
-      put(next, str, i + 1, value);
+      node.value = value;
+      return this;
     }
 
     @Override
     public Trie<V> build() {
-      return new TrieImpl<>(root.build());
-    }
-  }
+      List<NodeBuilder<V>> nodes = new ArrayList<>();
+      List<String> edgeLabels = new ArrayList<>();
+      List<Integer> edgeCounts = new ArrayList<>();
+
+      Queue<NodeBuilder<V>> queue = new ArrayDeque<>();
+      queue.add(root);
+      while (!queue.isEmpty()) {
+        NodeBuilder<V> node = queue.remove();
+        nodes.add(node);
+        edgeCounts.add(node.children.size());
+        for (Map.Entry<Character, NodeBuilder<V>> entry : node.children.entrySet()) {
+          // collapse the chain of nodes that only lead to a single other node
+          StringBuilder label = new StringBuilder().append(entry.getKey().charValue());
+          NodeBuilder<V> child = entry.getValue();
+          while (child.value == null && child.children.size() == 1) {
+            Map.Entry<Character, NodeBuilder<V>> only = child.children.firstEntry();
+            label.append(only.getKey().charValue());
+            child = only.getValue();
+          }
+          edgeLabels.add(label.toString());
+          queue.add(child);
+        }
+      }
 
-  static final class NodeBuilder<V> {
-    final Map<Character, NodeBuilder<V>> children = new HashMap<>();
-    V value;
+      int nodeCount = nodes.size();
+      int edgeCount = nodeCount - 1;
+      int[] edgeStart = new int[nodeCount + 1];
+      Object[] values = new Object[nodeCount];
+      for (int n = 0; n < nodeCount; n++) {
+        edgeStart[n + 1] = edgeStart[n] + edgeCounts.get(n);
+        values[n] = nodes.get(n).value;
+      }
 
-    Node<V> build() {
-      int size = children.size();
-      char[] chars = new char[size];
-      @SuppressWarnings({"unchecked", "rawtypes"})
-      Node<V>[] nodes = new Node[size];
-
-      int i = 0;
-      Iterator<Map.Entry<Character, NodeBuilder<V>>> it =
-          this.children.entrySet().stream().sorted(Map.Entry.comparingByKey()).iterator();
-      while (it.hasNext()) {
-        Map.Entry<Character, NodeBuilder<V>> e = it.next();
-        chars[i] = e.getKey();
-        nodes[i++] = e.getValue().build();
+      char[] firstChars = new char[edgeCount];
+      int[] labelStart = new int[edgeCount + 1];
+      StringBuilder labels = new StringBuilder();
+      for (int e = 0; e < edgeCount; e++) {
+        String label = edgeLabels.get(e);
+        firstChars[e] = label.charAt(0);
+        labelStart[e] = labels.length();
+        labels.append(label);
       }
+      labelStart[edgeCount] = labels.length();
 
-      return new Node<>(chars, nodes, value);
+      return new TrieImpl<>(
+          edgeStart, firstChars, labelStart, labels.toString().toCharArray(), values);
     }
   }
+
+  static final class NodeBuilder<V> {
+    // sorted, so that the edges can be binary searched
+    final TreeMap<Character, NodeBuilder<V>> children = new TreeMap<>();
+    V value;
+  }
 }
@@ -7,6 +7,7 @@ package io.opentelemetry.javaagent.test
 
 
 import io.opentelemetry.javaagent.tooling.AgentInstaller
+import io.opentelemetry.javaagent.tooling.HelperInjectionMetrics
 import io.opentelemetry.javaagent.tooling.HelperInjector
 import io.opentelemetry.javaagent.tooling.Utils
 import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig
@@ -59,6 +60,43 @@ class HelperInjectionTest extends Specification {
     null == ref.get()
   }
 
+  def "helper bytes are read once for multiple classloaders when cached: #cacheEnabled"() {
+    setup:
+    HelperInjector.helperBytesCacheEnabled = cacheEnabled
+    URL[] helpersSourceUrls = new URL[1]
+    helpersSourceUrls[0] = HelperClass.getProtectionDomain().getCodeSource().getLocation()
+    ClassLoader helpersSourceLoader = new URLClassLoader(helpersSourceUrls)
+
+    String helperClassName = HelperInjectionTest.getPackage().getName() + '.HelperClass'
+    HelperInjector injector = new HelperInjector("test", [helperClassName], [], helpersSourceLoader, null)
+    URLClassLoader firstLoader = new URLClassLoader(new URL[0], (ClassLoader) null)
+    URLClassLoader secondLoader = new URLClassLoader(new URL[0], (ClassLoader) null)
+    long injectedClasses = HelperInjectionMetrics.getInjectedClasses()
+    long bytesRead = HelperInjectionMetrics.getBytesRead()
+
+    when:
+    injector.transform(null, null, firstLoader, null, null)
+    Class<?> firstHelper = HelperInjector.loadHelperClass(firstLoader, helperClassName)
+    long bytesReadOnce = HelperInjectionMetrics.getBytesRead()
+    injector.transform(null, null, secondLoader, null, null)
+    Class<?> secondHelper = HelperInjector.loadHelperClass(secondLoader, helperClassName)
+
+    then:
+    firstHelper.getClassLoader() == firstLoader
+    secondHelper.getClassLoader() == secondLoader
+    HelperInjectionMetrics.getInjectedClasses() == injectedClasses + 2
+    bytesReadOnce > bytesRead
+    HelperInjectionMetrics.getBytesRead() == bytesReadOnce + (cacheEnabled ? 0 : bytesReadOnce - bytesRead)
+
+    cleanup:
+    HelperInjector.helperBytesCacheEnabled = false
+    firstLoader?.close()
+    secondLoader?.close()
+
+    where:
+    cacheEnabled << [true, false]
+  }
+
   def "helpers injected on bootstrap classloader"() {
     setup:
     ByteBuddyAgent.install()
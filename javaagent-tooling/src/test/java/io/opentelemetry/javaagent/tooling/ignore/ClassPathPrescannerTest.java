@@ -0,0 +1,106 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.ignore;
+
+import static java.util.Arrays.asList;
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassPathPrescannerTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void listsClassesInJarsAndDirectories() throws IOException {
+    Path jar = tempDir.resolve("test.jar");
+    try (OutputStream fileOut = Files.newOutputStream(jar);
+        ZipOutputStream out = new ZipOutputStream(fileOut)) {
+      for (String entry :
+          asList(
+              "test/InJar.class",
+              "test/package-info.class",
+              "module-info.class",
+              "META-INF/versions/11/test/InJar.class",
+              "test/resource.txt")) {
+        out.putNextEntry(new ZipEntry(entry));
+        out.closeEntry();
+      }
+    }
+    Path directory = Files.createDirectories(tempDir.resolve("classes/test/nested"));
+    Files.createFile(directory.resolve("InDirectory.class"));
+    Files.createFile(directory.resolve("InDirectory$Inner.class"));
+
+    List<String> classNames =
+        ClassPathPrescanner.listClasses(
+            asList(jar, tempDir.resolve("classes"), tempDir.resolve("missing.jar")));
+
+    assertThat(classNames)
+        .containsExactlyInAnyOrder(
+            "test.InJar", "test.nested.InDirectory", "test.nested.InDirectory$Inner");
+  }
+
+  @Test
+  void remembersClassesThatNoMatcherMatches() {
+    Set<String> result = ConcurrentHashMap.newKeySet();
+    List<String> classNames = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      // enough classes to be split across several tasks
+      classNames.add(Uninstrumented.class.getName());
+    }
+    classNames.add(Instrumented.class.getName());
+    classNames.add(Marker.class.getName());
+    classNames.add("test.DoesNotExist");
+
+    ClassPathPrescanner.scan(
+        ClassPathPrescannerTest.class.getClassLoader(),
+        classNames,
+        asList(named(Instrumented.class.getName()), isInterface()),
+        result);
+
+    assertThat(result).containsExactly(Uninstrumented.class.getName());
+  }
+
+  @Test
+  void ignoresScannedClassesOnlyWhenFirstLoadedByScannedClassLoader() {
+    ClassLoader classLoader = ClassPathPrescannerTest.class.getClassLoader();
+    Set<String> uninstrumentedClasses = new HashSet<>();
+    uninstrumentedClasses.add(Uninstrumented.class.getName());
+    AgentBuilder.RawMatcher matcher =
+        ClassPathPrescanner.ignoreMatcher(classLoader, uninstrumentedClasses);
+    TypeDescription uninstrumented = TypeDescription.ForLoadedType.of(Uninstrumented.class);
+    TypeDescription instrumented = TypeDescription.ForLoadedType.of(Instrumented.class);
+
+    assertThat(matcher.matches(instrumented, classLoader, null, null, null)).isFalse();
+    assertThat(matcher.matches(uninstrumented, null, null, null, null)).isFalse();
+    assertThat(matcher.matches(uninstrumented, classLoader, null, Uninstrumented.class, null))
+        .isFalse();
+    assertThat(matcher.matches(uninstrumented, classLoader, null, null, null)).isTrue();
+    assertThat(uninstrumentedClasses).isEmpty();
+  }
+
+  interface Marker {}
+
+  static class Instrumented {}
+
+  static class Uninstrumented {}
+}
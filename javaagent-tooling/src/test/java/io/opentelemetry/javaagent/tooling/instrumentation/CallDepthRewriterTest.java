@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.bootstrap.CallDepth;
+import java.util.ArrayList;
+import java.util.List;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+class CallDepthRewriterTest {
+
+  @Test
+  void rewritesClassLiterals() throws Exception {
+    DynamicType.Unloaded<?> rewritten =
+        CallDepthRewriter.instance()
+            .transform(new ByteBuddy().redefine(CallDepthUser.class), null, null, null, null)
+            .make();
+
+    assertThat(invokedMethods(rewritten.getBytes(), "literal")).containsExactly("forId");
+    assertThat(invokedMethods(rewritten.getBytes(), "runtime")).containsExactly("forClass");
+
+    Class<?> callDepthUser =
+        rewritten
+            .load(
+                CallDepthRewriterTest.class.getClassLoader(),
+                ClassLoadingStrategy.Default.CHILD_FIRST)
+            .getLoaded();
+    // the rewritten call shares the call depth with the calls that pass the class at runtime
+    assertThat(callDepthUser.getMethod("literal").invoke(null))
+        .isSameAs(CallDepth.forClass(CallDepthRewriterTest.class));
+    assertThat(callDepthUser.getMethod("runtime", Class.class).invoke(null, String.class))
+        .isSameAs(CallDepth.forClass(String.class));
+  }
+
+  private static List<String> invokedMethods(byte[] bytes, String methodName) {
+    List<String> invokedMethods = new ArrayList<>();
+    new ClassReader(bytes)
+        .accept(
+            new ClassVisitor(Opcodes.ASM7) {
+              @Override
+              public MethodVisitor visitMethod(
+                  int access,
+                  String name,
+                  String descriptor,
+                  String signature,
+                  String[] exceptions) {
+                if (!methodName.equals(name)) {
+                  return null;
+                }
+                return new MethodVisitor(Opcodes.ASM7) {
+                  @Override
+                  public void visitMethodInsn(
+                      int opcode,
+                      String owner,
+                      String name,
+                      String descriptor,
+                      boolean isInterface) {
+                    invokedMethods.add(name);
+                  }
+                };
+              }
+            },
+            0);
+    return invokedMethods;
+  }
+
+  public static class CallDepthUser {
+    public static CallDepth literal() {
+      return CallDepth.forClass(CallDepthRewriterTest.class);
+    }
+
+    public static CallDepth runtime(Class<?> type) {
+      return CallDepth.forClass(type);
+    }
+  }
+}
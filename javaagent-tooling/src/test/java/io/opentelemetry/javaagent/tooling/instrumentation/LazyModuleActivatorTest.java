@@ -0,0 +1,223 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.hasClassesNamed;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static net.bytebuddy.matcher.ElementMatchers.is;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+import static net.bytebuddy.matcher.ElementMatchers.none;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.lang.instrument.Instrumentation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Duration;
+import java.util.List;
+import net.bytebuddy.agent.ByteBuddyAgent;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class LazyModuleActivatorTest {
+
+  @Test
+  void modulesForAllClassLoadersAreNotDeferred() {
+    LazyModuleActivator activator = new LazyModuleActivator(new AgentBuilder.Default(), null, null);
+
+    assertThat(activator.defer(new TestModule("everywhere", null))).isFalse();
+  }
+
+  @Test
+  void deferredModulesAreActivatedOnce() throws Exception {
+    LazyModuleActivator activator = new LazyModuleActivator(new AgentBuilder.Default(), null, null);
+    InstrumentationModule module =
+        new TestModule("test", hasClassesNamed(LazyModuleActivatorTest.class.getName()));
+    assertThat(activator.defer(module)).isTrue();
+
+    try (URLClassLoader empty = new URLClassLoader(new URL[0], null)) {
+      assertThat(activator.removeMatching(empty)).isEmpty();
+    }
+
+    ClassLoader classLoader = LazyModuleActivatorTest.class.getClassLoader();
+    assertThat(activator.matchesActivated(classLoader)).isFalse();
+    assertThat(activator.removeMatching(classLoader)).containsExactly(module);
+    assertThat(activator.removeMatching(classLoader)).isEmpty();
+    assertThat(activator.matchesActivated(classLoader)).isTrue();
+  }
+
+  @Test
+  void activatedModulesInstrumentAlreadyLoadedClasses() throws Exception {
+    ByteBuddyAgent.install();
+    Instrumentation instrumentation = ByteBuddyAgent.getInstrumentation();
+
+    try (URLClassLoader classLoader = testClassLoader()) {
+      Class<?> earlierClass = classLoader.loadClass(EarlierClass.class.getName());
+      assertThat(isInstrumented(earlierClass)).isFalse();
+
+      LazyModuleActivator activator = activator(instrumentation);
+      assertThat(
+              activator.defer(
+                  new TestModule(
+                      "test", is(classLoader), singletonList(new ReturnTrueInstrumentation()))))
+          .isTrue();
+      ResettableClassFileTransformer sentinel =
+          activator.installSentinel(new AgentBuilder.Default()).installOn(instrumentation);
+      try {
+        Class<?> triggerClass = classLoader.loadClass(TriggerClass.class.getName());
+
+        await()
+            .atMost(Duration.ofSeconds(10))
+            .untilAsserted(
+                () -> {
+                  assertThat(isInstrumented(triggerClass)).isTrue();
+                  assertThat(isInstrumented(earlierClass)).isTrue();
+                });
+      } finally {
+        sentinel.reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED);
+      }
+    }
+  }
+
+  @Test
+  void laterClassLoadersRetransformWithTheActivatedModules() throws Exception {
+    ByteBuddyAgent.install();
+    Instrumentation instrumentation = ByteBuddyAgent.getInstrumentation();
+
+    try (URLClassLoader first = testClassLoader();
+        URLClassLoader second = testClassLoader()) {
+      Class<?> earlierClass = second.loadClass(EarlierClass.class.getName());
+
+      LazyModuleActivator activator = activator(instrumentation);
+      assertThat(
+              activator.defer(
+                  new TestModule(
+                      "test",
+                      is(first).or(is(second)),
+                      singletonList(new ReturnTrueInstrumentation()))))
+          .isTrue();
+      // keeps the activator checking new class loaders after the first module was activated
+      assertThat(activator.defer(new TestModule("never", none()))).isTrue();
+      ResettableClassFileTransformer sentinel =
+          activator.installSentinel(new AgentBuilder.Default()).installOn(instrumentation);
+      try {
+        Class<?> firstTriggerClass = first.loadClass(TriggerClass.class.getName());
+        await()
+            .atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(isInstrumented(firstTriggerClass)).isTrue());
+        // only the classes of the activating class loader are retransformed
+        assertThat(isInstrumented(earlierClass)).isFalse();
+
+        Class<?> secondTriggerClass = second.loadClass(TriggerClass.class.getName());
+        assertThat(isInstrumented(secondTriggerClass)).isTrue();
+        await()
+            .atMost(Duration.ofSeconds(10))
+            .untilAsserted(() -> assertThat(isInstrumented(earlierClass)).isTrue());
+      } finally {
+        sentinel.reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED);
+      }
+    }
+  }
+
+  private static LazyModuleActivator activator(Instrumentation instrumentation) {
+    ConfigProperties config = mock(ConfigProperties.class);
+    when(config.getBoolean(anyString(), anyBoolean()))
+        .thenAnswer(invocation -> invocation.getArgument(1));
+    return new LazyModuleActivator(
+        new AgentBuilder.Default().disableClassFormatChanges(), instrumentation, config);
+  }
+
+  private static URLClassLoader testClassLoader() {
+    URL testClasses =
+        LazyModuleActivatorTest.class.getProtectionDomain().getCodeSource().getLocation();
+    return new URLClassLoader(new URL[] {testClasses}, null);
+  }
+
+  private static boolean isInstrumented(Class<?> clazz) throws Exception {
+    return (boolean) clazz.getMethod("isInstrumented").invoke(null);
+  }
+
+  public static class EarlierClass {
+    public static boolean isInstrumented() {
+      return false;
+    }
+  }
+
+  public static class TriggerClass {
+    public static boolean isInstrumented() {
+      return false;
+    }
+  }
+
+  private static class ReturnTrueInstrumentation implements TypeInstrumentation {
+    @Override
+    public ElementMatcher<TypeDescription> typeMatcher() {
+      return namedOneOf(EarlierClass.class.getName(), TriggerClass.class.getName());
+    }
+
+    @Override
+    public void transform(TypeTransformer transformer) {
+      transformer.applyTransformer(
+          new AgentBuilder.Transformer.ForAdvice()
+              .with(
+                  new AgentBuilder.LocationStrategy.Simple(
+                      ClassFileLocator.ForClassLoader.of(
+                          ReturnTrueAdvice.class.getClassLoader())))
+              .advice(named("isInstrumented"), ReturnTrueAdvice.class.getName()));
+    }
+  }
+
+  @SuppressWarnings("unused")
+  public static class ReturnTrueAdvice {
+    @Advice.OnMethodExit(suppress = Throwable.class)
+    public static void onExit(@Advice.Return(readOnly = false) boolean result) {
+      result = true;
+    }
+  }
+
+  private static class TestModule extends InstrumentationModule {
+    private final ElementMatcher.Junction<ClassLoader> classLoaderMatcher;
+    private final List<TypeInstrumentation> typeInstrumentations;
+
+    TestModule(String name, ElementMatcher.Junction<ClassLoader> classLoaderMatcher) {
+      this(name, classLoaderMatcher, emptyList());
+    }
+
+    TestModule(
+        String name,
+        ElementMatcher.Junction<ClassLoader> classLoaderMatcher,
+        List<TypeInstrumentation> typeInstrumentations) {
+      super(name);
+      this.classLoaderMatcher = classLoaderMatcher;
+      this.typeInstrumentations = typeInstrumentations;
+    }
+
+    @Override
+    public ElementMatcher.Junction<ClassLoader> classLoaderMatcher() {
+      return classLoaderMatcher != null ? classLoaderMatcher : super.classLoaderMatcher();
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return typeInstrumentations;
+    }
+  }
+}
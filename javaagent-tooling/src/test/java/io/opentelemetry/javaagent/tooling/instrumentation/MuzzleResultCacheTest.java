@@ -0,0 +1,135 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MuzzleResultCacheTest {
+
+  @TempDir static Path tempDir;
+
+  @BeforeAll
+  static void setUp() {
+    MuzzleResultCache.enable();
+  }
+
+  @Test
+  void shareResultsBetweenDeploymentsOfTheSameJars() throws Exception {
+    ClassLoader parent = new URLClassLoader(new URL[0], null);
+    URLClassLoader first = deployment("first", "library-1.0", parent);
+    URLClassLoader second = deployment("second", "library-1.0", parent);
+    URLClassLoader third = deployment("third", "library-1.0", parent);
+    URLClassLoader otherVersion = deployment("other", "library-2.0", parent);
+
+    MuzzleResultCache cache = new MuzzleResultCache();
+    AtomicInteger checks = new AtomicInteger();
+    long hits = MuzzleResultCache.getHits();
+    long misses = MuzzleResultCache.getMisses();
+
+    assertThat(cache.matches(first, classLoader -> checks.incrementAndGet() > 0)).isTrue();
+    assertThat(cache.matches(second, classLoader -> checks.incrementAndGet() > 0)).isTrue();
+    assertThat(cache.matches(third, classLoader -> checks.incrementAndGet() > 0)).isTrue();
+    assertThat(checks).hasValue(1);
+
+    assertThat(cache.matches(otherVersion, classLoader -> checks.incrementAndGet() < 0)).isFalse();
+    assertThat(checks).hasValue(2);
+
+    assertThat(MuzzleResultCache.getHits()).isEqualTo(hits + 2);
+    assertThat(MuzzleResultCache.getMisses()).isEqualTo(misses + 2);
+  }
+
+  @Test
+  void notSharedBetweenDifferentParents() throws Exception {
+    URLClassLoader first =
+        deployment("first-parent", "library-1.0", new URLClassLoader(new URL[0], null));
+    URLClassLoader second =
+        deployment("second-parent", "library-1.0", new URLClassLoader(new URL[0], null));
+
+    MuzzleResultCache cache = new MuzzleResultCache();
+    AtomicInteger checks = new AtomicInteger();
+
+    cache.matches(first, classLoader -> checks.incrementAndGet() > 0);
+    cache.matches(second, classLoader -> checks.incrementAndGet() > 0);
+
+    assertThat(checks).hasValue(2);
+  }
+
+  @Test
+  void fingerprint() throws Exception {
+    ClassLoader parent = new URLClassLoader(new URL[0], null);
+
+    assertThat(MuzzleResultCache.fingerprint(deployment("a", "library-1.0", parent)))
+        .isNotEmpty()
+        .isEqualTo(MuzzleResultCache.fingerprint(deployment("b", "library-1.0", parent)))
+        .isNotEqualTo(MuzzleResultCache.fingerprint(deployment("c", "library-2.0", parent)));
+    assertThat(MuzzleResultCache.fingerprint(new URLClassLoader(new URL[] {new URL("http://x/")})))
+        .isEmpty();
+  }
+
+  @Test
+  void noFingerprintWithoutClassPath() {
+    assertThat(MuzzleResultCache.fingerprint(new URLClassLoader(new URL[0], null))).isEmpty();
+  }
+
+  @Test
+  void noFingerprintWithMissingClassPathEntry() throws Exception {
+    URL[] urls = deployment("with-missing", "library-1.0", null).getURLs();
+    URL missing = tempDir.resolve("missing.jar").toUri().toURL();
+
+    assertThat(MuzzleResultCache.fingerprint(new URLClassLoader(urls, null))).isNotEmpty();
+    assertThat(
+            MuzzleResultCache.fingerprint(
+                new URLClassLoader(new URL[] {urls[0], urls[1], missing}, null)))
+        .isEmpty();
+  }
+
+  @Test
+  void notSharedWithoutFingerprint() {
+    ClassLoader parent = new URLClassLoader(new URL[0], null);
+    MuzzleResultCache cache = new MuzzleResultCache();
+    AtomicInteger checks = new AtomicInteger();
+
+    cache.matches(
+        new URLClassLoader(new URL[0], parent), classLoader -> checks.incrementAndGet() > 0);
+    cache.matches(
+        new URLClassLoader(new URL[0], parent), classLoader -> checks.incrementAndGet() > 0);
+
+    assertThat(checks).hasValue(2);
+  }
+
+  // every deployment gets its own copy of the jar and of the classes directory, like a webapp
+  // that is extracted to a different directory every time it is deployed
+  private static URLClassLoader deployment(String name, String content, ClassLoader parent)
+      throws IOException {
+    Path deployment = Files.createDirectories(tempDir.resolve(name));
+    Path jar = deployment.resolve("library.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new ZipEntry("com/example/Library.class"));
+      out.write(content.getBytes(UTF_8));
+      out.closeEntry();
+    }
+    Path classes = Files.createDirectories(deployment.resolve("classes/com/example"));
+    try (OutputStream out = Files.newOutputStream(classes.resolve("App.class"))) {
+      out.write("app".getBytes(UTF_8));
+    }
+    return new URLClassLoader(
+        new URL[] {deployment.resolve("classes").toUri().toURL(), jar.toUri().toURL()}, parent);
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static net.bytebuddy.matcher.ElementMatchers.none;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
+import io.opentelemetry.javaagent.extension.instrumentation.TypeTransformer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class StartupProfilerTest {
+
+  private static AgentBuilder.Listener listener;
+
+  @BeforeAll
+  static void setUp() {
+    listener = StartupProfiler.start(Duration.ofHours(1), null);
+  }
+
+  @Test
+  void recordTypeMatching() {
+    StartupProfiler.TypeProfile typeProfile =
+        StartupProfiler.profile(new FirstModule()).typeInstrumentation(new FirstInstrumentation());
+
+    ElementMatcher<String> matcher =
+        typeProfile.timeMatcher(
+            name -> {
+              sleep();
+              return name.isEmpty();
+            });
+
+    assertThat(matcher.matches("")).isTrue();
+    assertThat(matcher.matches("a")).isFalse();
+    assertThat(typeProfile.typeMatchingNanos.sum()).isPositive();
+  }
+
+  @Test
+  void splitTransformationBetweenTypeInstrumentations() throws Exception {
+    StartupProfiler.ModuleProfile moduleProfile = StartupProfiler.profile(new SecondModule());
+    StartupProfiler.TypeProfile first =
+        moduleProfile.typeInstrumentation(new FirstInstrumentation());
+    StartupProfiler.TypeProfile second =
+        moduleProfile.typeInstrumentation(new SecondInstrumentation());
+    AgentBuilder.Transformer helperInjector =
+        moduleProfile.timeHelperInjection(
+            (builder, typeDescription, classLoader, module, protectionDomain) -> {
+              sleep();
+              return builder;
+            });
+    AgentBuilder.Transformer transformer =
+        (builder, typeDescription, classLoader, module, protectionDomain) -> {
+          sleep();
+          return builder;
+        };
+
+    listener.onDiscovery("com.example.Transformed", null, null, false);
+    first.markTransformation(transformer).transform(null, null, null, null, null);
+    helperInjector.transform(null, null, null, null, null);
+    second.markTransformation(transformer).transform(null, null, null, null, null);
+    listener.onComplete("com.example.Transformed", null, null, false);
+
+    assertThat(moduleProfile.helperInjectionNanos.sum()).isPositive();
+    assertThat(first.transformationNanos.sum())
+        .isPositive()
+        .isEqualTo(second.transformationNanos.sum());
+  }
+
+  @Test
+  void classesNotTransformedAreIgnored() {
+    StartupProfiler.TypeProfile typeProfile =
+        StartupProfiler.profile(new ThirdModule()).typeInstrumentation(new FirstInstrumentation());
+
+    listener.onDiscovery("com.example.NotTransformed", null, null, false);
+    listener.onComplete("com.example.NotTransformed", null, null, false);
+
+    assertThat(typeProfile.transformationNanos.sum()).isZero();
+  }
+
+  @Test
+  void json() {
+    StartupProfiler.ModuleProfile cheap = StartupProfiler.profile(new FirstModule());
+    StartupProfiler.ModuleProfile expensive = StartupProfiler.profile(new SecondModule());
+    cheap.muzzleNanos.add(1);
+    expensive.muzzleNanos.add(1_000_000_000);
+    expensive.typeInstrumentation(new FirstInstrumentation());
+    List<StartupProfiler.ModuleProfile> profiles = Arrays.asList(expensive, cheap);
+
+    String json = StartupProfiler.toJson(profiles);
+
+    assertThat(json)
+        .startsWith("{\"modules\":[{\"name\":\"SecondModule\",\"instrumentationName\":\"second\"")
+        .contains("{\"name\":\"FirstModule\",\"instrumentationName\":\"first\"")
+        .contains("\"typeInstrumentations\":[{\"name\":\"")
+        .endsWith("]}");
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  static class FirstModule extends InstrumentationModule {
+    FirstModule() {
+      super("first");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return singletonList(new FirstInstrumentation());
+    }
+  }
+
+  static class SecondModule extends InstrumentationModule {
+    SecondModule() {
+      super("second");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return Arrays.asList(new FirstInstrumentation(), new SecondInstrumentation());
+    }
+  }
+
+  static class ThirdModule extends InstrumentationModule {
+    ThirdModule() {
+      super("third");
+    }
+
+    @Override
+    public List<TypeInstrumentation> typeInstrumentations() {
+      return emptyList();
+    }
+  }
+
+  static class FirstInstrumentation implements TypeInstrumentation {
+    @Override
+    public ElementMatcher<TypeDescription> typeMatcher() {
+      return none();
+    }
+
+    @Override
+    public void transform(TypeTransformer transformer) {}
+  }
+
+  static class SecondInstrumentation extends FirstInstrumentation {}
+}
@@ -10,6 +10,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class TrieTest {
@@ -50,4 +53,71 @@ class TrieTest {
 
     assertEquals(-1, trie.getOrDefault("acdc", -1));
   }
+
+  @Test
+  void shouldNotMatchInsideCollapsedPrefix() {
+    Trie<Integer> trie =
+        Trie.<Integer>builder().put("org.springframework.", 1).put("org.slf4j.", 2).build();
+
+    assertNull(trie.getOrNull("org.spring"));
+    assertNull(trie.getOrNull("org.springframeworx."));
+    assertEquals(1, trie.getOrNull("org.springframework.boot.App"));
+    assertEquals(2, trie.getOrNull("org.slf4j.Logger"));
+  }
+
+  @Test
+  void shouldMatchEmptyPrefix() {
+    Trie<Integer> trie = Trie.<Integer>builder().put("", 1).put("abc", 2).build();
+
+    assertEquals(1, trie.getOrNull(""));
+    assertEquals(1, trie.getOrNull("ab"));
+    assertEquals(2, trie.getOrNull("abcd"));
+  }
+
+  @Test
+  void shouldCollapseSingleChildNodes() {
+    TrieImpl<Integer> trie =
+        (TrieImpl<Integer>)
+            Trie.<Integer>builder()
+                .put("org.springframework.", 1)
+                .put("org.slf4j.", 2)
+                .put("org.slf4j.impl.", 3)
+                .build();
+
+    // root, "org.s", "pringframework.", "lf4j.", "impl."
+    assertEquals(5, trie.nodeCount());
+  }
+
+  @Test
+  void shouldMatchLikeNaiveLongestPrefixSearch() {
+    Random random = new Random(0);
+    Map<String, Integer> entries = new HashMap<>();
+    Trie.Builder<Integer> builder = Trie.builder();
+    for (int i = 0; i < 500; i++) {
+      String key = randomString(random);
+      entries.put(key, i);
+      builder.put(key, i);
+    }
+    Trie<Integer> trie = builder.build();
+
+    for (int i = 0; i < 5000; i++) {
+      String str = randomString(random) + randomString(random);
+      Integer expected = null;
+      for (int end = 0; end <= str.length(); end++) {
+        Integer value = entries.get(str.substring(0, end));
+        if (value != null) {
+          expected = value;
+        }
+      }
+      assertEquals(expected, trie.getOrNull(str), str);
+    }
+  }
+
+  private static String randomString(Random random) {
+    char[] chars = new char[random.nextInt(6)];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = "ab.$".charAt(random.nextInt(4));
+    }
+    return new String(chars);
+  }
 }
@@ -80,8 +80,7 @@ dependencies {
   baseJavaagentLibs(project(":instrumentation:internal:internal-reflection:javaagent"))
   baseJavaagentLibs(project(":instrumentation:internal:internal-url-class-loader:javaagent"))
 
-  // concurrentlinkedhashmap-lru and weak-lock-free are copied in to the instrumentation-api module
-  licenseReportDependencies("com.googlecode.concurrentlinkedhashmap:concurrentlinkedhashmap-lru:1.4.2")
+  // weak-lock-free is copied in to the instrumentation-api module
   licenseReportDependencies("com.blogspot.mydailyjava:weak-lock-free:0.18")
   // TODO ideally this would be :instrumentation instead of :javaagent-tooling
   //  in case there are dependencies (accidentally) pulled in by instrumentation modules
@@ -0,0 +1,42 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the helper classes injected by {@link HelperInjector}, the time spent defining them and
+ * the number of class file bytes that were read from the agent to do so.
+ */
+public final class HelperInjectionMetrics {
+
+  private static final LongAdder injectedClasses = new LongAdder();
+  private static final LongAdder injectionNanos = new LongAdder();
+  private static final LongAdder bytesRead = new LongAdder();
+
+  static void recordInjection(int classCount, long nanos) {
+    injectedClasses.add(classCount);
+    injectionNanos.add(nanos);
+  }
+
+  static void recordBytesRead(int bytes) {
+    bytesRead.add(bytes);
+  }
+
+  public static long getInjectedClasses() {
+    return injectedClasses.sum();
+  }
+
+  public static long getInjectionNanos() {
+    return injectionNanos.sum();
+  }
+
+  public static long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  private HelperInjectionMetrics() {}
+}
@@ -12,6 +12,7 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.HelperResources;
 import io.opentelemetry.javaagent.bootstrap.InjectedClassHelper;
+import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
 import io.opentelemetry.javaagent.tooling.muzzle.HelperResource;
 import java.io.File;
 import java.io.IOException;
@@ -88,13 +89,24 @@ public class HelperInjector implements Transformer {
   private static final Cache<ClassLoader, Map<String, HelperClassInjector>> helperInjectors =
       Cache.weak();
 
+  // the same helper classes are injected into every class loader that matches an instrumentation
+  // module, on app servers with many webapps caching their bytes avoids reading them again from
+  // the agent jar for every webapp; the cache is opt-in because it keeps up to
+  // HELPER_BYTES_CACHE_SIZE class files per helper source on the heap for as long as the agent runs
+  private static final int HELPER_BYTES_CACHE_SIZE = 512;
+  private static final Cache<ClassLoader, Cache<String, byte[]>> helperBytes = Cache.weak();
+  // visible for testing
+  static boolean helperBytesCacheEnabled =
+      InstrumentationConfig.get()
+          .getBoolean("otel.javaagent.experimental.helper-bytes-cache.enabled", false);
+
   private final String requestingName;
 
   private final Set<String> helperClassNames;
   private final List<HelperResource> helperResources;
   @Nullable private final ClassLoader helpersSource;
   @Nullable private final Instrumentation instrumentation;
-  private final Map<String, Supplier<byte[]>> dynamicTypeMap = new LinkedHashMap<>();
+  private final Map<String, Supplier<byte[]>> helperMap;
 
   private final Cache<ClassLoader, Boolean> injectedClassLoaders = Cache.weak();
   private final Cache<ClassLoader, Boolean> resourcesInjectedClassLoaders = Cache.weak();
@@ -122,6 +134,12 @@ public class HelperInjector implements Transformer {
     this.helperResources = helperResources;
     this.helpersSource = helpersSource;
     this.instrumentation = instrumentation;
+
+    Map<String, Supplier<byte[]>> helperMap = new LinkedHashMap<>();
+    for (String helperClassName : this.helperClassNames) {
+      helperMap.put(helperClassName, () -> readHelperClass(helperClassName));
+    }
+    this.helperMap = helperMap;
   }
 
   private HelperInjector(
@@ -131,7 +149,7 @@ public class HelperInjector implements Transformer {
     this.requestingName = requestingName;
 
     this.helperClassNames = helperMap.keySet();
-    this.dynamicTypeMap.putAll(helperMap);
+    this.helperMap = new LinkedHashMap<>(helperMap);
 
     this.helperResources = Collections.emptyList();
     this.helpersSource = null;
@@ -153,29 +171,27 @@ public class HelperInjector implements Transformer {
     helperInjectorListener = listener;
   }
 
-  private Map<String, Supplier<byte[]>> getHelperMap() {
-    if (dynamicTypeMap.isEmpty()) {
-      Map<String, Supplier<byte[]>> result = new LinkedHashMap<>();
-
-      for (String helperClassName : helperClassNames) {
-        result.put(
-            helperClassName,
-            () -> {
-              try (ClassFileLocator locator = ClassFileLocator.ForClassLoader.of(helpersSource)) {
-                return locator.locate(helperClassName).resolve();
-              } catch (IOException exception) {
-                if (logger.isLoggable(SEVERE)) {
-                  logger.log(
-                      SEVERE, "Failed to read {0}", new Object[] {helperClassName}, exception);
-                }
-                throw new IllegalStateException("Failed to read " + helperClassName, exception);
-              }
-            });
-      }
+  private byte[] readHelperClass(String helperClassName) {
+    if (!helperBytesCacheEnabled) {
+      return locateHelperClass(helperClassName);
+    }
+    return helperBytes
+        .computeIfAbsent(
+            maskNullClassLoader(helpersSource),
+            unused -> Cache.bounded(HELPER_BYTES_CACHE_SIZE))
+        .computeIfAbsent(helperClassName, this::locateHelperClass);
+  }
 
-      return result;
-    } else {
-      return dynamicTypeMap;
+  private byte[] locateHelperClass(String helperClassName) {
+    try (ClassFileLocator locator = ClassFileLocator.ForClassLoader.of(helpersSource)) {
+      byte[] bytes = locator.locate(helperClassName).resolve();
+      HelperInjectionMetrics.recordBytesRead(bytes.length);
+      return bytes;
+    } catch (IOException exception) {
+      if (logger.isLoggable(SEVERE)) {
+        logger.log(SEVERE, "Failed to read {0}", new Object[] {helperClassName}, exception);
+      }
+      throw new IllegalStateException("Failed to read " + helperClassName, exception);
     }
   }
 
@@ -265,7 +281,7 @@ public class HelperInjector implements Transformer {
                   new Object[] {cl, helperClassNames});
             }
 
-            Map<String, Supplier<byte[]>> classnameToBytes = getHelperMap();
+            Map<String, Supplier<byte[]>> classnameToBytes = helperMap;
             Map<String, HelperClassInjector> map =
                 helperInjectors.computeIfAbsent(cl, (unused) -> new ConcurrentHashMap<>());
             for (Map.Entry<String, Supplier<byte[]>> entry : classnameToBytes.entrySet()) {
@@ -308,11 +324,22 @@ public class HelperInjector implements Transformer {
   private Map<String, Class<?>> injectBootstrapClassLoader(Map<String, Supplier<byte[]>> inject)
       throws IOException {
 
+    long startTime = System.nanoTime();
     Map<String, byte[]> classnameToBytes = resolve(inject);
     if (helperInjectorListener != null) {
       helperInjectorListener.onInjection(classnameToBytes);
     }
 
+    try {
+      return injectBootstrapClassLoaderRaw(classnameToBytes);
+    } finally {
+      HelperInjectionMetrics.recordInjection(
+          classnameToBytes.size(), System.nanoTime() - startTime);
+    }
+  }
+
+  private Map<String, Class<?>> injectBootstrapClassLoaderRaw(Map<String, byte[]> classnameToBytes)
+      throws IOException {
     if (ClassInjector.UsingUnsafe.isAvailable()) {
       return ClassInjector.UsingUnsafe.ofBootLoader().injectRaw(classnameToBytes);
     }
@@ -391,6 +418,7 @@ public class HelperInjector implements Transformer {
     }
 
     Class<?> inject(ClassLoader classLoader, String className) {
+      long startTime = System.nanoTime();
       // if security manager is present byte buddy calls
       // checkPermission(new ReflectPermission("suppressAccessChecks")) so we must call class
       // injection with AccessController.doPrivileged when security manager is enabled
@@ -399,6 +427,7 @@ public class HelperInjector implements Transformer {
               () ->
                   new ClassInjector.UsingReflection(classLoader, PROTECTION_DOMAIN)
                       .injectRaw(Collections.singletonMap(className, bytes.get())));
+      HelperInjectionMetrics.recordInjection(1, System.nanoTime() - startTime);
       return result.get(className);
     }
   }
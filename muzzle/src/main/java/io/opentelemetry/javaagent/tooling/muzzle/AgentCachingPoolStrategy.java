@@ -6,7 +6,9 @@
 package io.opentelemetry.javaagent.tooling.muzzle;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.cache.ResizableCache;
 import io.opentelemetry.javaagent.bootstrap.InstrumentationHolder;
 import io.opentelemetry.javaagent.bootstrap.VirtualFieldAccessorMarker;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
@@ -16,6 +18,9 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
@@ -45,7 +50,9 @@ import net.bytebuddy.utility.JavaModule;
  * <p>This design was chosen to create a single limited size cache that can be adjusted for the
  * entire application -- without having to create a large number of WeakReference objects.
  *
- * <p>Eviction is handled through a size restriction
+ * <p>Eviction is handled through a size restriction. The size adapts to the rate at which class
+ * files are parsed, between {@link #TYPE_CAPACITY} entries and a memory limit configured through
+ * {@code otel.javaagent.experimental.type-resolution-cache.max-size-mb}.
  */
 public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
@@ -59,6 +66,16 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
   static final int TYPE_CAPACITY = 64;
 
+  // rough retained size of a parsed type description, used to turn the memory limit into a number
+  // of entries
+  static final int ESTIMATED_RESOLUTION_SIZE = 4 * 1024;
+
+  private static final int MAX_CACHE_SIZE_MB =
+      InstrumentationConfig.get()
+          .getInt("otel.javaagent.experimental.type-resolution-cache.max-size-mb", 8);
+
+  private static final String CACHE_NAME = "AgentCachingPoolStrategy";
+
   static final int BOOTSTRAP_HASH = 7236344; // Just a random number
 
   /**
@@ -74,19 +91,71 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   /**
    * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name
    */
-  final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
-      Cache.bounded(TYPE_CAPACITY);
+  final ResizableCache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
+      Cache.resizable(
+          TYPE_CAPACITY,
+          getMaximumTypeCapacity(),
+          CACHE_NAME,
+          key -> {
+            if (key.stats != null) {
+              key.stats.evictions.incrementAndGet();
+            }
+          });
+
+  private final ResolutionCacheSizer cacheSizer =
+      new ResolutionCacheSizer(
+          sharedResolutionCache, TYPE_CAPACITY, sharedResolutionCache.capacity());
+
+  /**
+   * Hit, miss and eviction counts by class loader type. Only collected when the supportability
+   * metrics are enabled.
+   */
+  private final ConcurrentMap<String, LoaderStats> loaderStats = new ConcurrentHashMap<>();
 
   // fast path for bootstrap
   final SharedResolutionCacheAdapter bootstrapCacheProvider =
-      new SharedResolutionCacheAdapter(BOOTSTRAP_HASH, null, sharedResolutionCache);
+      new SharedResolutionCacheAdapter(
+          BOOTSTRAP_HASH, null, getLoaderStats(null), sharedResolutionCache, cacheSizer);
 
   private final AgentLocationStrategy locationStrategy;
 
+  @Nullable private volatile PersistentTypeCache persistentTypeCache;
+
   public AgentCachingPoolStrategy(AgentLocationStrategy locationStrategy) {
     this.locationStrategy = locationStrategy;
   }
 
+  /**
+   * Sets the on-disk cache that is used to navigate the hierarchy of classes loaded from jar files
+   * without parsing their class files.
+   */
+  void setPersistentTypeCache(@Nullable PersistentTypeCache persistentTypeCache) {
+    this.persistentTypeCache = persistentTypeCache;
+  }
+
+  private static int getMaximumTypeCapacity() {
+    long maxEntries = (long) MAX_CACHE_SIZE_MB * 1024 * 1024 / ESTIMATED_RESOLUTION_SIZE;
+    return (int) Math.max(TYPE_CAPACITY, Math.min(Integer.MAX_VALUE, maxEntries));
+  }
+
+  @Nullable
+  private LoaderStats getLoaderStats(@Nullable ClassLoader classLoader) {
+    SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+    if (!supportability.isEnabled()) {
+      return null;
+    }
+    // grouping by type keeps the number of counters bounded for applications that create many
+    // class loaders
+    String loaderType = classLoader == null ? "bootstrap" : classLoader.getClass().getName();
+    LoaderStats stats = loaderStats.get(loaderType);
+    if (stats == null) {
+      stats =
+          loaderStats.computeIfAbsent(
+              loaderType, type -> new LoaderStats(supportability, CACHE_NAME + " [" + type + "]"));
+    }
+    return stats;
+  }
+
   private static Method getFindLoadedClassMethod() {
     // instrumentation is null when this code is called from muzzle
     Instrumentation instrumentation = InstrumentationHolder.getInstrumentation();
@@ -155,7 +224,8 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         loaderRefCache.computeIfAbsent(classLoader, WeakReference::new);
 
     int loaderHash = System.identityHashCode(classLoader);
-    return new SharedResolutionCacheAdapter(loaderHash, loaderRef, sharedResolutionCache);
+    return new SharedResolutionCacheAdapter(
+        loaderHash, loaderRef, getLoaderStats(classLoader), sharedResolutionCache, cacheSizer);
   }
 
   /**
@@ -171,15 +241,22 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
     private final int loaderHash;
     @Nullable private final WeakReference<ClassLoader> loaderRef;
     private final String className;
+    // not part of the key, used for attributing evictions to the class loader
+    @Nullable private final LoaderStats stats;
 
     private final int hashCode;
 
-    TypeCacheKey(int loaderHash, WeakReference<ClassLoader> loaderRef, String className) {
+    TypeCacheKey(
+        int loaderHash,
+        WeakReference<ClassLoader> loaderRef,
+        String className,
+        @Nullable LoaderStats stats) {
       // classes in java package are always loaded from boot loader
       // set loader to boot loader to avoid creating multiple cache entries
       this.loaderHash = className.startsWith("java.") ? BOOTSTRAP_HASH : loaderHash;
       this.loaderRef = className.startsWith("java.") ? null : loaderRef;
       this.className = className;
+      this.stats = stats;
 
       hashCode = 31 * this.loaderHash + className.hashCode();
     }
@@ -260,15 +337,21 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
 
     private final int loaderHash;
     private final WeakReference<ClassLoader> loaderRef;
+    @Nullable private final LoaderStats stats;
     private final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache;
+    private final ResolutionCacheSizer cacheSizer;
 
     SharedResolutionCacheAdapter(
         int loaderHash,
         WeakReference<ClassLoader> loaderRef,
-        Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache) {
+        @Nullable LoaderStats stats,
+        Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache,
+        ResolutionCacheSizer cacheSizer) {
       this.loaderHash = loaderHash;
       this.loaderRef = loaderRef;
+      this.stats = stats;
       this.sharedResolutionCache = sharedResolutionCache;
+      this.cacheSizer = cacheSizer;
     }
 
     @Override
@@ -286,13 +369,17 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         return null;
       }
 
+      cacheSizer.onLookup();
       TypePool.Resolution existingResolution =
-          sharedResolutionCache.get(new TypeCacheKey(loaderHash, loaderRef, className));
-      if (existingResolution != null) {
-        return existingResolution;
+          sharedResolutionCache.get(new TypeCacheKey(loaderHash, loaderRef, className, stats));
+      if (stats != null) {
+        if (existingResolution != null) {
+          stats.hits.incrementAndGet();
+        } else {
+          stats.misses.incrementAndGet();
+        }
       }
-
-      return null;
+      return existingResolution;
     }
 
     @Override
@@ -302,7 +389,10 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         return resolution;
       }
 
-      sharedResolutionCache.put(new TypeCacheKey(loaderHash, loaderRef, className), resolution);
+      // resolutions are only registered after parsing the class file
+      cacheSizer.onParse();
+      sharedResolutionCache.put(
+          new TypeCacheKey(loaderHash, loaderRef, className, stats), resolution);
       return resolution;
     }
 
@@ -312,6 +402,18 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
     }
   }
 
+  private static final class LoaderStats {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    LoaderStats(SupportabilityMetrics supportability, String name) {
+      supportability.registerCounter(name + " cache hit", () -> hits.getAndSet(0));
+      supportability.registerCounter(name + " cache miss", () -> misses.getAndSet(0));
+      supportability.registerCounter(name + " cache eviction", () -> evictions.getAndSet(0));
+    }
+  }
+
   /** Based on TypePool.Default.WithLazyResolution */
   private class AgentTypePool extends TypePool.Default {
     // ThreadLocal used for detecting loading of annotation types
@@ -474,12 +576,66 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
         return name;
       }
 
+      private volatile boolean persistedTypeLookedUp;
+      @Nullable private volatile PersistentTypeCache.JarTypes jarTypes;
+      @Nullable private volatile PersistentTypeCache.TypeHeader persistedType;
+
+      /**
+       * Returns the super class, interfaces and modifiers of this type from the persistent cache, or
+       * {@code null} if they aren't cached.
+       */
+      @Nullable
+      private PersistentTypeCache.TypeHeader persistedType() {
+        if (!persistedTypeLookedUp) {
+          PersistentTypeCache cache = persistentTypeCache;
+          ClassLoader classLoader = classLoaderRef.get();
+          // like the shared resolution cache, never use the cache for the type that is currently
+          // being transformed
+          if (cache != null
+              && classLoader != null
+              && !AgentTooling.isTransforming(classLoader, name)) {
+            PersistentTypeCache.JarTypes jar = cache.forClass(classLoader, name);
+            if (jar != null) {
+              persistedType = jar.get(name);
+              jarTypes = jar;
+            }
+          }
+          persistedTypeLookedUp = true;
+        }
+        return persistedType;
+      }
+
+      /** Parses the class file, and adds the type to the persistent cache if it is enabled. */
+      private TypeDescription parsedDelegate() {
+        TypeDescription delegate = delegate();
+        PersistentTypeCache.JarTypes jar = jarTypes;
+        if (jar != null) {
+          jar.put(name, delegate);
+        }
+        return delegate;
+      }
+
+      @Override
+      public int getModifiers() {
+        PersistentTypeCache.TypeHeader type = persistedType();
+        return type != null ? type.getModifiers() : parsedDelegate().getModifiers();
+      }
+
       private volatile TypeDescription.Generic cachedSuperClass;
 
       @Override
       public TypeDescription.Generic getSuperClass() {
         if (cachedSuperClass == null) {
-          TypeDescription.Generic superClassDescription = delegate().getSuperClass();
+          TypeDescription.Generic superClassDescription;
+          PersistentTypeCache.TypeHeader type = persistedType();
+          if (type == null) {
+            superClassDescription = parsedDelegate().getSuperClass();
+          } else if (type.getSuperName() == null) {
+            superClassDescription = null;
+          } else {
+            superClassDescription =
+                AgentTypePool.this.describe(type.getSuperName()).resolve().asGenericType();
+          }
           ClassLoader classLoader = classLoaderRef.get();
           if (canUseFindLoadedClass() && classLoader != null && superClassDescription != null) {
             String superName = superClassDescription.getTypeName();
@@ -500,7 +656,17 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
       @Override
       public TypeList.Generic getInterfaces() {
         if (cachedInterfaces == null) {
-          TypeList.Generic interfaces = delegate().getInterfaces();
+          TypeList.Generic interfaces;
+          PersistentTypeCache.TypeHeader type = persistedType();
+          if (type == null) {
+            interfaces = parsedDelegate().getInterfaces();
+          } else {
+            List<TypeDescription> interfaceDescriptions = new ArrayList<>();
+            for (String interfaceName : type.getInterfaceNames()) {
+              interfaceDescriptions.add(AgentTypePool.this.describe(interfaceName).resolve());
+            }
+            interfaces = new TypeList.Generic.Explicit(interfaceDescriptions);
+          }
           ClassLoader classLoader = classLoaderRef.get();
           if (canUseFindLoadedClass() && classLoader != null && !interfaces.isEmpty()) {
             // here we use raw types and loose generic info
@@ -20,7 +20,7 @@ public final class AgentTooling {
   private static final AgentLocationStrategy LOCATION_STRATEGY =
       new AgentLocationStrategy(getBootstrapProxy());
 
-  private static final AgentBuilder.PoolStrategy POOL_STRATEGY =
+  private static final AgentCachingPoolStrategy POOL_STRATEGY =
       new AgentCachingPoolStrategy(LOCATION_STRATEGY);
 
   private static final ThreadLocal<CurrentTransform> CURRENT_TRANSFORM = new ThreadLocal<>();
@@ -33,6 +33,14 @@ public final class AgentTooling {
     return POOL_STRATEGY;
   }
 
+  /**
+   * Makes the pool strategy use the given on-disk cache for the hierarchy of types loaded from jar
+   * files.
+   */
+  public static void setPersistentTypeCache(PersistentTypeCache persistentTypeCache) {
+    POOL_STRATEGY.setPersistentTypeCache(persistentTypeCache);
+  }
+
   public static AgentBuilder.Listener transformListener() {
     return new ClassTransformListener();
   }
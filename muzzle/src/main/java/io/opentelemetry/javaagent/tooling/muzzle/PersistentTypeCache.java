@@ -0,0 +1,328 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+
+/**
+ * An on-disk cache of the super class, interfaces and modifiers of classes that are loaded from jar
+ * files. Type matchers mostly navigate the class hierarchy, with this cache they can do that after
+ * a restart without locating and parsing the class files of all the super types again.
+ *
+ * <p>There's one cache file per jar. It is only used when it was written by the same agent version
+ * for a jar with the same checksum; the checksum is computed over the central directory of the
+ * jar, which contains the CRC-32 of every entry, so it changes whenever any of the classes does.
+ * Cache files are read through a memory mapped buffer when a class from the jar is described for
+ * the first time, and rewritten by {@link #save()} when new classes were described.
+ */
+public final class PersistentTypeCache {
+
+  private static final Logger logger = Logger.getLogger(PersistentTypeCache.class.getName());
+
+  private static final int MAGIC = 0x4f544c54;
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+  private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+  private static final int MAX_ZIP_COMMENT_LENGTH = 0xFFFF;
+
+  private static final JarTypes UNCACHEABLE = new JarTypes("", null, 0, Collections.emptyMap());
+
+  private final Path directory;
+  private final String agentVersion;
+  private final ConcurrentMap<String, JarTypes> jars = new ConcurrentHashMap<>();
+
+  public PersistentTypeCache(Path directory, String agentVersion) {
+    this.directory = directory;
+    this.agentVersion = agentVersion;
+  }
+
+  /**
+   * Returns the cached types of the jar that {@code classLoader} loads the given class from, or
+   * {@code null} when the class isn't loaded from a jar file.
+   */
+  @Nullable
+  JarTypes forClass(ClassLoader classLoader, String className) {
+    URL url = classLoader.getResource(className.replace('.', '/') + ".class");
+    if (url == null || !"jar".equals(url.getProtocol())) {
+      return null;
+    }
+    // for nested jars (e.g. spring boot) this is the location of the innermost jar, whose content
+    // is covered by the checksum of the outermost one
+    String location = url.getPath();
+    int separator = location.lastIndexOf("!/");
+    if (separator < 0) {
+      return null;
+    }
+    location = location.substring(0, separator);
+    JarTypes jar = jars.computeIfAbsent(location, this::load);
+    return jar == UNCACHEABLE ? null : jar;
+  }
+
+  private JarTypes load(String location) {
+    Path jarFile = toJarFile(location);
+    if (jarFile == null) {
+      return UNCACHEABLE;
+    }
+    long checksum;
+    try {
+      checksum = checksum(jarFile);
+    } catch (IOException | RuntimeException e) {
+      logger.log(FINE, "Unable to compute the checksum of " + jarFile, e);
+      return UNCACHEABLE;
+    }
+
+    Path cacheFile = cacheFile(location);
+    Map<String, TypeHeader> types = Collections.emptyMap();
+    try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      types = read(buffer, location, checksum);
+    } catch (NoSuchFileException ignored) {
+      // not cached yet
+    } catch (IOException | RuntimeException e) {
+      // a truncated or otherwise corrupted file is simply rewritten
+      logger.log(FINE, "Unable to read type cache file " + cacheFile, e);
+    }
+    return new JarTypes(location, cacheFile, checksum, types);
+  }
+
+  @Nullable
+  private static Path toJarFile(String location) {
+    int separator = location.indexOf("!/");
+    String outermost = separator < 0 ? location : location.substring(0, separator);
+    if (!outermost.startsWith("file:")) {
+      return null;
+    }
+    try {
+      return Paths.get(new URI(outermost));
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private Path cacheFile(String location) {
+    String fileName = location.substring(location.lastIndexOf('/') + 1);
+    return directory.resolve(fileName + "-" + Integer.toHexString(location.hashCode()) + ".types");
+  }
+
+  /** Computes the CRC-32 of the central directory of the given jar. */
+  // visible for testing
+  static long checksum(Path jarFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(jarFile, StandardOpenOption.READ)) {
+      long size = channel.size();
+      int tailLength =
+          (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_LENGTH + MAX_ZIP_COMMENT_LENGTH);
+      ByteBuffer tail =
+          channel.map(FileChannel.MapMode.READ_ONLY, size - tailLength, tailLength);
+      tail.order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0; i--) {
+        if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+          long centralDirectoryLength = tail.getInt(i + 12) & 0xFFFFFFFFL;
+          long centralDirectoryOffset = tail.getInt(i + 16) & 0xFFFFFFFFL;
+          if (centralDirectoryOffset + centralDirectoryLength > size) {
+            // zip64 archives store the real values elsewhere, these aren't worth supporting here
+            throw new IOException("Unsupported jar file " + jarFile);
+          }
+          CRC32 crc = new CRC32();
+          crc.update(
+              channel.map(
+                  FileChannel.MapMode.READ_ONLY, centralDirectoryOffset, centralDirectoryLength));
+          return crc.getValue();
+        }
+      }
+      throw new IOException("Not a jar file " + jarFile);
+    }
+  }
+
+  private Map<String, TypeHeader> read(ByteBuffer buffer, String location, long checksum) {
+    if (buffer.getInt() != MAGIC
+        || buffer.getInt() != FORMAT_VERSION
+        || !agentVersion.equals(readString(buffer))
+        || !location.equals(readString(buffer))
+        || buffer.getLong() != checksum) {
+      // written by a different agent version or for a different jar, will be overwritten
+      return Collections.emptyMap();
+    }
+    int count = buffer.getInt();
+    Map<String, TypeHeader> types = new HashMap<>(count * 4 / 3 + 1);
+    for (int i = 0; i < count; i++) {
+      String name = readString(buffer);
+      int modifiers = buffer.getInt();
+      String superName = readString(buffer);
+      String[] interfaceNames = new String[buffer.getShort() & 0xFFFF];
+      for (int j = 0; j < interfaceNames.length; j++) {
+        interfaceNames[j] = readString(buffer);
+      }
+      types.put(
+          name, new TypeHeader(modifiers, superName.isEmpty() ? null : superName, interfaceNames));
+    }
+    return types;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+    buffer.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  /** Writes the cache files of all jars that had classes added since they were loaded. */
+  public void save() {
+    for (JarTypes jar : jars.values()) {
+      if (jar.addedTypes.isEmpty() || jar.cacheFile == null) {
+        continue;
+      }
+      try {
+        write(jar);
+      } catch (IOException | RuntimeException e) {
+        logger.log(WARNING, "Unable to write type cache file " + jar.cacheFile, e);
+      }
+    }
+  }
+
+  private void write(JarTypes jar) throws IOException {
+    Map<String, TypeHeader> types = new HashMap<>(jar.loadedTypes);
+    types.putAll(jar.addedTypes);
+
+    Files.createDirectories(directory);
+    // write to a temporary file first so that concurrently starting JVMs never read a partial file
+    Path tempFile = Files.createTempFile(directory, "types", ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeString(out, agentVersion);
+        writeString(out, jar.location);
+        out.writeLong(jar.checksum);
+        out.writeInt(types.size());
+        for (Map.Entry<String, TypeHeader> entry : types.entrySet()) {
+          TypeHeader type = entry.getValue();
+          writeString(out, entry.getKey());
+          out.writeInt(type.modifiers);
+          writeString(out, type.superName == null ? "" : type.superName);
+          out.writeShort(type.interfaceNames.length);
+          for (String interfaceName : type.interfaceNames) {
+            writeString(out, interfaceName);
+          }
+        }
+      }
+      Files.move(
+          tempFile,
+          jar.cacheFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  /** The cached types of a single jar. */
+  static final class JarTypes {
+    private final String location;
+    @Nullable private final Path cacheFile;
+    private final long checksum;
+    private final Map<String, TypeHeader> loadedTypes;
+    private final ConcurrentMap<String, TypeHeader> addedTypes = new ConcurrentHashMap<>();
+
+    private JarTypes(
+        String location,
+        @Nullable Path cacheFile,
+        long checksum,
+        Map<String, TypeHeader> loadedTypes) {
+      this.location = location;
+      this.cacheFile = cacheFile;
+      this.checksum = checksum;
+      this.loadedTypes = loadedTypes;
+    }
+
+    @Nullable
+    TypeHeader get(String className) {
+      TypeHeader type = loadedTypes.get(className);
+      return type != null ? type : addedTypes.get(className);
+    }
+
+    void put(String className, TypeDescription typeDescription) {
+      if (!loadedTypes.containsKey(className)) {
+        addedTypes.computeIfAbsent(className, unused -> TypeHeader.of(typeDescription));
+      }
+    }
+  }
+
+  /** The parts of a class file that are needed to navigate the class hierarchy. */
+  static final class TypeHeader {
+    private final int modifiers;
+    @Nullable private final String superName;
+    private final String[] interfaceNames;
+
+    private TypeHeader(int modifiers, @Nullable String superName, String[] interfaceNames) {
+      this.modifiers = modifiers;
+      this.superName = superName;
+      this.interfaceNames = interfaceNames;
+    }
+
+    static TypeHeader of(TypeDescription typeDescription) {
+      TypeDescription.Generic superClass = typeDescription.getSuperClass();
+      List<String> interfaceNames = new ArrayList<>();
+      for (TypeDefinition interfaceType : typeDescription.getInterfaces()) {
+        interfaceNames.add(interfaceType.asErasure().getName());
+      }
+      return new TypeHeader(
+          typeDescription.getModifiers(),
+          superClass == null ? null : superClass.asErasure().getName(),
+          interfaceNames.toArray(new String[0]));
+    }
+
+    int getModifiers() {
+      return modifiers;
+    }
+
+    @Nullable
+    String getSuperName() {
+      return superName;
+    }
+
+    String[] getInterfaceNames() {
+      return interfaceNames;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import io.opentelemetry.instrumentation.api.internal.cache.ResizableCache;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Adjusts the capacity of the shared type resolution cache to the rate at which class files are
+ * parsed. While many classes are loaded, typically during startup, the cache grows so that the
+ * types these classes have in common (super classes, interfaces) are parsed only once. When class
+ * loading calms down it shrinks again, halving the capacity at most once per second, to release the
+ * memory. The capacity is also re-evaluated on cache lookups, and once per second that passed since
+ * the last evaluation, so that the cache shrinks even when no class files are parsed anymore.
+ */
+final class ResolutionCacheSizer {
+
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final ResizableCache<?, ?> cache;
+  private final int minimumCapacity;
+  private final int maximumCapacity;
+  private final LongSupplier nanoTime;
+
+  private final AtomicLong parsedInWindow = new AtomicLong();
+  private final AtomicLong windowStart;
+
+  ResolutionCacheSizer(ResizableCache<?, ?> cache, int minimumCapacity, int maximumCapacity) {
+    this(cache, minimumCapacity, maximumCapacity, System::nanoTime);
+  }
+
+  // visible for testing
+  ResolutionCacheSizer(
+      ResizableCache<?, ?> cache, int minimumCapacity, int maximumCapacity, LongSupplier nanoTime) {
+    this.cache = cache;
+    this.minimumCapacity = minimumCapacity;
+    this.maximumCapacity = maximumCapacity;
+    this.nanoTime = nanoTime;
+    this.windowStart = new AtomicLong(nanoTime.getAsLong());
+  }
+
+  /** Called whenever a class file was parsed because its type wasn't cached. */
+  void onParse() {
+    parsedInWindow.incrementAndGet();
+    onLookup();
+  }
+
+  /** Called whenever a type is looked up in the cache. */
+  void onLookup() {
+    long now = nanoTime.getAsLong();
+    long start = windowStart.get();
+    // only one of the threads that see the window end resizes the cache; losing the few parses
+    // that other threads count in the meantime doesn't matter
+    if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+      resize(parsedInWindow.getAndSet(0), (now - start) / WINDOW_NANOS);
+    }
+  }
+
+  private void resize(long parsed, long elapsedWindows) {
+    // keep about two windows worth of parsed types
+    long parsedPerWindow = parsed / elapsedWindows;
+    int target = (int) Math.max(minimumCapacity, Math.min(maximumCapacity, parsedPerWindow * 2));
+    int capacity = cache.capacity();
+    if (target > capacity) {
+      cache.setCapacity(target);
+    } else if (target < capacity) {
+      // halve once for every window that passed, also when nothing was looked up in between
+      int halved = capacity >> Math.min(elapsedWindows, Integer.SIZE - 1);
+      cache.setCapacity(Math.max(target, halved));
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentTypeCacheTest {
+
+  private static final String CLASS_NAME = "test.Cached";
+
+  @TempDir Path tempDir;
+
+  @Test
+  void typesAreReadBackAfterRestart() throws IOException {
+    Path jar = writeJar("content");
+    Path cacheDir = tempDir.resolve("cache");
+
+    PersistentTypeCache cache = new PersistentTypeCache(cacheDir, "1.0");
+    try (URLClassLoader classLoader = classLoader(jar)) {
+      PersistentTypeCache.JarTypes jarTypes = cache.forClass(classLoader, CLASS_NAME);
+      assertThat(jarTypes).isNotNull();
+      assertThat(jarTypes.get(CLASS_NAME)).isNull();
+      jarTypes.put(CLASS_NAME, TypeDescription.ForLoadedType.of(ArrayList.class));
+    }
+    cache.save();
+
+    PersistentTypeCache.TypeHeader type = readBack(cacheDir, "1.0", jar);
+    assertThat(type).isNotNull();
+    assertThat(Modifier.isPublic(type.getModifiers())).isTrue();
+    assertThat(type.getSuperName()).isEqualTo("java.util.AbstractList");
+    assertThat(type.getInterfaceNames()).contains("java.util.List", "java.util.RandomAccess");
+  }
+
+  @Test
+  void invalidatedWhenAgentVersionChanges() throws IOException {
+    Path jar = writeJar("content");
+    Path cacheDir = tempDir.resolve("cache");
+    populate(cacheDir, "1.0", jar);
+
+    assertThat(readBack(cacheDir, "1.0", jar)).isNotNull();
+    assertThat(readBack(cacheDir, "1.1", jar)).isNull();
+  }
+
+  @Test
+  void invalidatedWhenJarChanges() throws IOException {
+    Path jar = writeJar("content");
+    Path cacheDir = tempDir.resolve("cache");
+    populate(cacheDir, "1.0", jar);
+    long checksum = PersistentTypeCache.checksum(jar);
+
+    writeJar("changed content");
+
+    assertThat(PersistentTypeCache.checksum(jar)).isNotEqualTo(checksum);
+    assertThat(readBack(cacheDir, "1.0", jar)).isNull();
+  }
+
+  @Test
+  void classesOutsideOfJarsAreNotCached() throws IOException {
+    Path classes = Files.createDirectories(tempDir.resolve("classes/test"));
+    Files.write(classes.resolve("Cached.class"), new byte[] {1, 2, 3});
+
+    PersistentTypeCache cache = new PersistentTypeCache(tempDir.resolve("cache"), "1.0");
+    try (URLClassLoader classLoader = classLoader(tempDir.resolve("classes"))) {
+      assertThat(cache.forClass(classLoader, CLASS_NAME)).isNull();
+    }
+  }
+
+  private static void populate(Path cacheDir, String agentVersion, Path jar) throws IOException {
+    PersistentTypeCache cache = new PersistentTypeCache(cacheDir, agentVersion);
+    try (URLClassLoader classLoader = classLoader(jar)) {
+      cache
+          .forClass(classLoader, CLASS_NAME)
+          .put(CLASS_NAME, TypeDescription.ForLoadedType.of(ArrayList.class));
+    }
+    cache.save();
+  }
+
+  private static PersistentTypeCache.TypeHeader readBack(
+      Path cacheDir, String agentVersion, Path jar) throws IOException {
+    PersistentTypeCache cache = new PersistentTypeCache(cacheDir, agentVersion);
+    try (URLClassLoader classLoader = classLoader(jar)) {
+      return cache.forClass(classLoader, CLASS_NAME).get(CLASS_NAME);
+    }
+  }
+
+  private Path writeJar(String content) throws IOException {
+    Path jar = tempDir.resolve("test.jar");
+    try (OutputStream fileOut = Files.newOutputStream(jar);
+        ZipOutputStream out = new ZipOutputStream(fileOut)) {
+      out.putNextEntry(new ZipEntry("test/Cached.class"));
+      out.write(content.getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+    return jar;
+  }
+
+  private static URLClassLoader classLoader(Path path) throws IOException {
+    return new URLClassLoader(new URL[] {path.toUri().toURL()}, null);
+  }
+}
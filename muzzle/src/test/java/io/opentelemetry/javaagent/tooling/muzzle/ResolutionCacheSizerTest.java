@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.cache.ResizableCache;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ResolutionCacheSizerTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final ResizableCache<String, String> cache = Cache.resizable(64, 1024, "test", null);
+  private final ResolutionCacheSizer sizer = new ResolutionCacheSizer(cache, 64, 1024, nanoTime::get);
+
+  @Test
+  void growsWithParseRate() {
+    parse(300);
+    assertThat(cache.capacity()).isEqualTo(600);
+
+    parse(10_000);
+    assertThat(cache.capacity()).isEqualTo(1024);
+  }
+
+  @Test
+  void shrinksGradually() {
+    parse(10_000);
+    assertThat(cache.capacity()).isEqualTo(1024);
+
+    parse(1);
+    assertThat(cache.capacity()).isEqualTo(512);
+    parse(1);
+    assertThat(cache.capacity()).isEqualTo(256);
+    parse(1);
+    parse(1);
+    parse(1);
+    assertThat(cache.capacity()).isEqualTo(64);
+  }
+
+  @Test
+  void shrinksAfterIdlePeriod() {
+    parse(10_000);
+    assertThat(cache.capacity()).isEqualTo(1024);
+    for (int i = 0; i < 1000; i++) {
+      cache.put("type" + i, "resolution");
+    }
+
+    // no class files were parsed for three seconds
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(3));
+    sizer.onLookup();
+    assertThat(cache.capacity()).isEqualTo(128);
+    assertThat(IntStream.range(0, 1000).filter(i -> cache.get("type" + i) != null).count())
+        .isLessThanOrEqualTo(128);
+  }
+
+  @Test
+  void doesNotResizeWithinWindow() {
+    for (int i = 0; i < 10_000; i++) {
+      sizer.onParse();
+    }
+    assertThat(cache.capacity()).isEqualTo(64);
+  }
+
+  /** Parses the given number of classes within one second, and a single one right after that. */
+  private void parse(int count) {
+    for (int i = 0; i < count - 1; i++) {
+      sizer.onParse();
+    }
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    sizer.onParse();
+  }
+}